@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.context.Context;
+import org.terasology.las.benchmark.HeadlessWorldGen;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.Region;
+import org.terasology.world.generation.WorldFacet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the column and per-voxel modes of {@link LaSSimpleWorldRasterizer} on one chunk.
+ * <p>
+ * Chunk y -1 lies entirely below both surfaces, 1 entirely above them, and 0 is cut by them. The flat surface has the
+ * same top in every column, the sloped one a different top in most columns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LaSSimpleWorldRasterizerBenchmark {
+    @Param({"flat", "sloped"})
+    public String surface;
+
+    @Param({"-1", "0", "1"})
+    public int chunkY;
+
+    private CoreChunk chunk;
+    private Region region;
+    private LaSSimpleWorldRasterizer columns;
+    private LaSSimpleWorldRasterizer voxels;
+
+    @Setup
+    public void setUp() {
+        Context context = HeadlessWorldGen.createContext();
+        SurfaceFunction function = "flat".equals(surface)
+                ? SurfaceFunction.constant(10f)
+                : SurfaceFunction.planar(16f, 0.5f, 0.25f);
+        AnalyticSurfaceHeightFacet facet = new AnalyticSurfaceHeightFacet(function);
+        ChunkImpl scratch = HeadlessWorldGen.createChunk(context, new Vector3i(0, chunkY, 0));
+        Region3i chunkRegion = scratch.getRegion();
+        chunk = scratch;
+        region = new Region() {
+            @Override
+            public <T extends WorldFacet> T getFacet(Class<T> dataType) {
+                return dataType.cast(facet);
+            }
+
+            @Override
+            public Region3i getRegion() {
+                return chunkRegion;
+            }
+        };
+        columns = new LaSSimpleWorldRasterizer(true);
+        columns.initialize();
+        voxels = new LaSSimpleWorldRasterizer(false);
+        voxels.initialize();
+    }
+
+    @Benchmark
+    public CoreChunk columns() {
+        columns.generateChunk(chunk, region);
+        return chunk;
+    }
+
+    @Benchmark
+    public CoreChunk voxels() {
+        voxels.generateChunk(chunk, region);
+        return chunk;
+    }
+}
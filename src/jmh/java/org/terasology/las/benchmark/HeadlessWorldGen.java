@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.benchmark;
+
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generator.plugin.WorldGeneratorPlugin;
+import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The smallest context world generation runs in outside of a game: a {@link StubBlockManager}, no world generator
+ * plugins, and in-memory chunks that are never stored.
+ */
+public final class HeadlessWorldGen {
+    private static final WorldGeneratorPluginLibrary NO_PLUGINS = new WorldGeneratorPluginLibrary() {
+        @Override
+        public <U extends WorldGeneratorPlugin> List<U> instantiateAllOfType(Class<U> ofType) {
+            return Collections.emptyList();
+        }
+    };
+
+    private HeadlessWorldGen() {
+    }
+
+    /**
+     * Creates the context and makes it the {@link CoreRegistry} context, which rasterizers resolve blocks from.
+     */
+    public static Context createContext() {
+        Context context = new ContextImpl();
+        context.put(BlockManager.class, new StubBlockManager());
+        context.put(ExtraBlockDataManager.class, new ExtraBlockDataManager());
+        context.put(WorldGeneratorPluginLibrary.class, NO_PLUGINS);
+        CoreRegistry.setContext(context);
+        return context;
+    }
+
+    /**
+     * @return an empty chunk at the given chunk position
+     */
+    public static ChunkImpl createChunk(Context context, Vector3i chunkPos) {
+        return new ChunkImpl(chunkPos, context.get(BlockManager.class), context.get(ExtraBlockDataManager.class));
+    }
+}
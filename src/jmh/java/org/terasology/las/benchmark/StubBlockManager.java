@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.BlockFamily;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A block manager without assets, for benchmarks: every uri it is asked for gets its own plain block and a family
+ * containing only that block. Air always has id 0.
+ */
+public class StubBlockManager extends BlockManager {
+    private final Map<BlockUri, Block> blocks = Maps.newLinkedHashMap();
+    private final Map<BlockUri, BlockFamily> families = Maps.newLinkedHashMap();
+    private final List<Block> blocksById = Lists.newArrayList();
+
+    public StubBlockManager() {
+        getBlock(AIR_ID);
+    }
+
+    @Override
+    public synchronized Map<String, Short> getBlockIdMap() {
+        Map<String, Short> ids = Maps.newHashMap();
+        for (Block block : blocksById) {
+            ids.put(block.getURI().toString(), block.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public BlockFamily getBlockFamily(String uri) {
+        return getBlockFamily(new BlockUri(uri));
+    }
+
+    @Override
+    public synchronized BlockFamily getBlockFamily(BlockUri uri) {
+        return getBlock(uri).getBlockFamily();
+    }
+
+    @Override
+    public Block getBlock(String uri) {
+        return getBlock(new BlockUri(uri));
+    }
+
+    @Override
+    public synchronized Block getBlock(BlockUri uri) {
+        Block block = blocks.get(uri);
+        if (block == null) {
+            block = new Block();
+            block.setUri(uri);
+            block.setId((short) blocksById.size());
+            BlockFamily family = createFamily(uri.getFamilyUri(), block);
+            block.setBlockFamily(family);
+            blocks.put(uri, block);
+            families.put(uri.getFamilyUri(), family);
+            blocksById.add(block);
+        }
+        return block;
+    }
+
+    @Override
+    public synchronized Block getBlock(short id) {
+        return id >= 0 && id < blocksById.size() ? blocksById.get(id) : blocksById.get(0);
+    }
+
+    @Override
+    public synchronized Collection<BlockUri> listRegisteredBlockUris() {
+        return ImmutableList.copyOf(blocks.keySet());
+    }
+
+    @Override
+    public synchronized Collection<BlockFamily> listRegisteredBlockFamilies() {
+        return ImmutableList.copyOf(families.values());
+    }
+
+    @Override
+    public synchronized int getBlockFamilyCount() {
+        return families.size();
+    }
+
+    @Override
+    public synchronized Collection<Block> listRegisteredBlocks() {
+        return ImmutableList.copyOf(blocksById);
+    }
+
+    /**
+     * The family is a proxy so that it does not depend on the exact shape of the family interface: methods returning
+     * a block return the single block, and the others return the uri, the block as a list or an empty value.
+     */
+    private static BlockFamily createFamily(BlockUri uri, Block block) {
+        Class<?>[] interfaces = {BlockFamily.class};
+        return (BlockFamily) Proxy.newProxyInstance(BlockFamily.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                        case "getDisplayName":
+                            return uri.toString();
+                        default:
+                            break;
+                    }
+                    if (type == Block.class) {
+                        return block;
+                    }
+                    if (type == BlockUri.class) {
+                        return uri;
+                    }
+                    if (type.isAssignableFrom(List.class)) {
+                        return Collections.singletonList(block);
+                    }
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.profiling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.context.Context;
+import org.terasology.engine.SimpleUri;
+import org.terasology.las.LaSSimpleWorldGenerator;
+import org.terasology.las.LaSWorldGenerator;
+import org.terasology.las.arena.BakedArenaRasterizer;
+import org.terasology.las.benchmark.HeadlessWorldGen;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.InjectionHelper;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.EntityBuffer;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the chunk throughput of both LaS world generators, headless.
+ * <p>
+ * Each invocation generates a square of {@value #SIDE}x{@value #SIDE} chunk columns around the origin into in-memory
+ * chunks that are allocated once and reused, so that only the generator is measured. The score is in chunks per
+ * second. At the end of a trial, the bytes allocated per chunk and the per-stage breakdown of the
+ * {@link WorldGenProfiler} for the last measurement iteration are printed. The baked arena cache is turned off, so
+ * the arena rasterizers always run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(WorldGenBenchmark.CHUNKS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorldGenBenchmark {
+    static final int SIDE = 4;
+    static final int CHUNKS = SIDE * SIDE;
+
+    /**
+     * Entities generated along with the chunks are dropped; their providers still run and are measured.
+     */
+    private static final EntityBuffer DISCARD_ENTITIES = entity -> {
+    };
+
+    @Param({"LaSSimpleWorld", "las"})
+    public String generatorId;
+
+    @Param({"LaS benchmark"})
+    public String seed;
+
+    private WorldGenerator generator;
+    private final ChunkImpl[] chunks = new ChunkImpl[CHUNKS];
+
+    private long iterationChunks;
+    private long iterationStartBytes;
+    private String lastIteration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BakedArenaRasterizer.setCacheEnabled(false);
+        Context context = HeadlessWorldGen.createContext();
+        SimpleUri uri = new SimpleUri("LightAndShadow", generatorId);
+        generator = "las".equals(generatorId) ? new LaSWorldGenerator(uri) : new LaSSimpleWorldGenerator(uri);
+        InjectionHelper.inject(generator, context);
+        generator.setWorldSeed(seed);
+        generator.initialize();
+        for (int i = 0; i < CHUNKS; i++) {
+            Vector3i chunkPos = new Vector3i(i % SIDE - SIDE / 2, 0, i / SIDE - SIDE / 2);
+            chunks[i] = HeadlessWorldGen.createChunk(context, chunkPos);
+        }
+        WorldGenProfiler.setEnabled(true);
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        WorldGenProfiler.reset();
+        iterationChunks = 0;
+        iterationStartBytes = WorldGenProfiler.allocatedBytes();
+    }
+
+    @Benchmark
+    public WorldGenerator generate() {
+        for (ChunkImpl chunk : chunks) {
+            generator.createChunk(chunk, DISCARD_ENTITIES);
+        }
+        iterationChunks += CHUNKS;
+        return generator;
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        long bytes = iterationStartBytes < 0 ? -1 : WorldGenProfiler.allocatedBytes() - iterationStartBytes;
+        lastIteration = String.format(Locale.ROOT, "%s: %d chunks, %d bytes/chunk%n%s",
+                generatorId,
+                iterationChunks,
+                bytes < 0 ? -1 : bytes / Math.max(iterationChunks, 1),
+                WorldGenProfiler.report());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        WorldGenProfiler.setEnabled(false);
+        BakedArenaRasterizer.setCacheEnabled(true);
+        System.out.println();
+        System.out.println(lastIteration);
+    }
+}
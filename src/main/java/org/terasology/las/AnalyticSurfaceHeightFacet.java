@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las;
+
+import org.terasology.world.generation.WorldFacet;
+
+/**
+ * A surface height facet that computes its values from a {@link SurfaceFunction} instead of storing them.
+ * It holds no per-region data, so a single instance can be shared by every generating region.
+ */
+public class AnalyticSurfaceHeightFacet implements WorldFacet {
+    private final SurfaceFunction function;
+
+    public AnalyticSurfaceHeightFacet(SurfaceFunction function) {
+        this.function = function;
+    }
+
+    public float getWorld(int x, int z) {
+        return function.getHeight(x, z);
+    }
+
+    public SurfaceFunction getFunction() {
+        return function;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las;
+
+import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+
+/**
+ * The blocks used by the LaS world generators, resolved once per world into a table indexed by the constants below.
+ * <p>
+ * Providers and rasterizers obtain the palette with {@link #of(BlockManager)} in their {@code initialize} method.
+ * The palette is rebuilt whenever a different {@link BlockManager} is passed in, i.e. when another world is loaded.
+ */
+public final class LaSBlockPalette {
+    public static final int AIR = 0;
+    public static final int DIRT = 1;
+    public static final int RED_BASE_STONE = 2;
+    public static final int BLACK_BASE_STONE = 3;
+    public static final int RED_FLAG = 4;
+    public static final int BLACK_FLAG = 5;
+    public static final int RED_DICE = 6;
+    public static final int BLACK_DICE = 7;
+    public static final int MAGIC_PLANK = 8;
+    public static final int MAGIC_GLASS = 9;
+    public static final int MAGIC_STONE = 10;
+    public static final int TALL_GRASS_1 = 11;
+    public static final int TALL_GRASS_2 = 12;
+    public static final int TALL_GRASS_3 = 13;
+    public static final int SPADES_SAPLING = 14;
+    public static final int HEARTS_SAPLING = 15;
+    public static final int DIAMONDS_SAPLING = 16;
+    public static final int CLUBS_SAPLING = 17;
+    public static final int UNCLAIMED_SAPLING = 18;
+    public static final int BIG_BROWN_SHROOM = 19;
+    public static final int BROWN_SHROOM = 20;
+    public static final int RED_SHROOM = 21;
+
+    private static final String[] URIS = {
+            BlockManager.AIR_ID,
+            "CoreBlocks:Dirt",
+            LASUtils.RED_BASE_STONE,
+            LASUtils.BLACK_BASE_STONE,
+            LASUtils.RED_FLAG_URI,
+            LASUtils.BLACK_FLAG_URI,
+            "LightAndShadowResources:redDice",
+            "LightAndShadowResources:blackDice",
+            "LightAndShadowResources:MagicPlank",
+            "LightAndShadowResources:MagicGlass",
+            "LightAndShadowResources:MagicStone",
+            "CoreBlocks:TallGrass1",
+            "CoreBlocks:TallGrass2",
+            "CoreBlocks:TallGrass3",
+            "lightAndShadowResources:spadesCropSapling",
+            "lightAndShadowResources:heartsCropSapling",
+            "lightAndShadowResources:diamondsCropSapling",
+            "lightAndShadowResources:clubsCropSapling",
+            "lightAndShadowResources:unclaimedCropSapling",
+            "CoreBlocks:BigBrownShroom",
+            "CoreBlocks:BrownShroom",
+            "CoreBlocks:RedShroom"
+    };
+
+    private static volatile LaSBlockPalette current;
+
+    private final BlockManager blockManager;
+    private final Block[] blocks;
+
+    private LaSBlockPalette(BlockManager blockManager) {
+        this.blockManager = blockManager;
+        this.blocks = new Block[URIS.length];
+        for (int i = 0; i < URIS.length; i++) {
+            blocks[i] = blockManager.getBlock(URIS[i]);
+        }
+    }
+
+    /**
+     * @param blockManager the block manager of the current world
+     * @return the palette for that block manager, resolving it on first use
+     */
+    public static LaSBlockPalette of(BlockManager blockManager) {
+        LaSBlockPalette palette = current;
+        if (palette == null || palette.blockManager != blockManager) {
+            synchronized (LaSBlockPalette.class) {
+                palette = current;
+                if (palette == null || palette.blockManager != blockManager) {
+                    palette = new LaSBlockPalette(blockManager);
+                    current = palette;
+                }
+            }
+        }
+        return palette;
+    }
+
+    /**
+     * @return the number of palette entries
+     */
+    public static int size() {
+        return URIS.length;
+    }
+
+    /**
+     * @param id one of the palette constants
+     * @return the URI of the block behind it
+     */
+    public static String getUri(int id) {
+        return URIS[id];
+    }
+
+    /**
+     * @param id one of the palette constants
+     * @return the resolved block
+     */
+    public Block get(int id) {
+        return blocks[id];
+    }
+
+    /**
+     * @param ids palette constants
+     * @return the resolved blocks, in the same order
+     */
+    public Block[] get(int... ids) {
+        Block[] result = new Block[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = blocks[ids[i]];
+        }
+        return result;
+    }
+}
@@ -16,68 +16,127 @@
 
 package org.terasology.las;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Maps;
 import org.terasology.core.world.generator.facets.FloraFacet;
 import org.terasology.core.world.generator.rasterizers.FloraRasterizer;
 import org.terasology.core.world.generator.rasterizers.FloraType;
+import org.terasology.math.Region3i;
 import org.terasology.math.geom.BaseVector3i;
 import org.terasology.registry.CoreRegistry;
-import org.terasology.utilities.procedural.WhiteNoise;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.generation.Region;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
+/**
+ * Places LaS flora on the positions of the {@link FloraFacet}.
+ * <p>
+ * The facet entries are copied into reusable per-thread coordinate arrays, the variant is picked with a stateless
+ * hash of the world position, and free positions are detected by block id, so no garbage is produced per chunk.
+ */
 public class LaSFloraRasterizer extends FloraRasterizer {
-    private final Map<FloraType, List<Block>> flora = Maps.newEnumMap(FloraType.class);
-    private Block air;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Block[][] flora = new Block[FloraType.values().length][];
+    private short airId;
 
     @Override
     public void initialize() {
-        BlockManager blockManager = CoreRegistry.get(BlockManager.class);
-        air = blockManager.getBlock(BlockManager.AIR_ID);
-
-        flora.put(FloraType.GRASS, ImmutableList.<Block>of(
-                blockManager.getBlock("CoreBlocks:TallGrass1"),
-                blockManager.getBlock("CoreBlocks:TallGrass2"),
-                blockManager.getBlock("CoreBlocks:TallGrass3")));
-
-        flora.put(FloraType.FLOWER, ImmutableList.<Block>of(
-                blockManager.getBlock("lightAndShadowResources:spadesCropSapling"),
-                blockManager.getBlock("lightAndShadowResources:heartsCropSapling"),
-                blockManager.getBlock("lightAndShadowResources:diamondsCropSapling"),
-                blockManager.getBlock("lightAndShadowResources:clubsCropSapling"),
-                blockManager.getBlock("lightAndShadowResources:unclaimedCropSapling")));
-
-
-        flora.put(FloraType.MUSHROOM, ImmutableList.<Block>of(
-                blockManager.getBlock("CoreBlocks:BigBrownShroom"),
-                blockManager.getBlock("CoreBlocks:BrownShroom"),
-                blockManager.getBlock("CoreBlocks:RedShroom")));
+        LaSBlockPalette palette = LaSBlockPalette.of(CoreRegistry.get(BlockManager.class));
+        airId = palette.get(LaSBlockPalette.AIR).getId();
+
+        flora[FloraType.GRASS.ordinal()] = palette.get(
+                LaSBlockPalette.TALL_GRASS_1,
+                LaSBlockPalette.TALL_GRASS_2,
+                LaSBlockPalette.TALL_GRASS_3);
+
+        flora[FloraType.FLOWER.ordinal()] = palette.get(
+                LaSBlockPalette.SPADES_SAPLING,
+                LaSBlockPalette.HEARTS_SAPLING,
+                LaSBlockPalette.DIAMONDS_SAPLING,
+                LaSBlockPalette.CLUBS_SAPLING,
+                LaSBlockPalette.UNCLAIMED_SAPLING);
+
+
+        flora[FloraType.MUSHROOM.ordinal()] = palette.get(
+                LaSBlockPalette.BIG_BROWN_SHROOM,
+                LaSBlockPalette.BROWN_SHROOM,
+                LaSBlockPalette.RED_SHROOM);
     }
 
 
     @Override
     public void generateChunk(CoreChunk chunk, Region chunkRegion) {
-        super.generateChunk(chunk, chunkRegion);
-
+        // The parent rasterizer is never initialized, so it would not place anything; it is not called.
         FloraFacet facet = chunkRegion.getFacet(FloraFacet.class);
+        Map<BaseVector3i, FloraType> entries = facet.getRelativeEntries();
+        if (entries.isEmpty()) {
+            return;
+        }
 
-        WhiteNoise noise = new WhiteNoise(chunk.getPosition().hashCode());
+        Scratch scratch = SCRATCH.get();
+        int count = scratch.read(entries);
 
-        Map<BaseVector3i, FloraType> entries = facet.getRelativeEntries();
-        // check if some other rasterizer has already placed something here
-        entries.keySet().stream().filter(pos -> chunk.getBlock(pos).equals(air)).forEach(pos -> {
-
-            FloraType type = entries.get(pos);
-            List<Block> list = flora.get(type);
-            int blockIdx = Math.abs(noise.intNoise(pos.x(), pos.y(), pos.z())) % list.size();
-            Block block = list.get(blockIdx);
-            chunk.setBlock(pos, block);
-        });
+        Region3i region = chunkRegion.getRegion();
+        int offsetX = region.minX();
+        int offsetY = region.minY();
+        int offsetZ = region.minZ();
+
+        for (int i = 0; i < count; i++) {
+            int x = scratch.x[i];
+            int y = scratch.y[i];
+            int z = scratch.z[i];
+            // check if some other rasterizer has already placed something here
+            if (chunk.getBlock(x, y, z).getId() != airId) {
+                continue;
+            }
+            Block[] list = flora[scratch.type[i]];
+            int blockIdx = (hash(offsetX + x, offsetY + y, offsetZ + z) & Integer.MAX_VALUE) % list.length;
+            chunk.setBlock(x, y, z, list[blockIdx]);
+        }
+    }
+
+    /**
+     * A stateless integer hash of a world position, used to pick a flora variant.
+     */
+    private static int hash(int x, int y, int z) {
+        int h = x * 0x27d4eb2d ^ y * 0x165667b1 ^ z * 0x61c88647;
+        h ^= h >>> 15;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    /**
+     * Per-thread arrays holding the relative flora positions and type ordinals of the chunk being rasterized.
+     */
+    private static final class Scratch {
+        private int[] x = new int[256];
+        private int[] y = new int[256];
+        private int[] z = new int[256];
+        private int[] type = new int[256];
+
+        private int read(Map<BaseVector3i, FloraType> entries) {
+            int size = entries.size();
+            if (size > type.length) {
+                int capacity = Math.max(size, type.length * 2);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                z = Arrays.copyOf(z, capacity);
+                type = Arrays.copyOf(type, capacity);
+            }
+            int i = 0;
+            for (Map.Entry<BaseVector3i, FloraType> entry : entries.entrySet()) {
+                BaseVector3i pos = entry.getKey();
+                x[i] = pos.x();
+                y[i] = pos.y();
+                z[i] = pos.z();
+                type[i] = entry.getValue().ordinal();
+                i++;
+            }
+            return i;
+        }
     }
 }
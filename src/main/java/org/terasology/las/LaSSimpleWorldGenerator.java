@@ -20,12 +20,17 @@ import org.terasology.cities.DefaultBlockType;
 import org.terasology.core.world.generator.facetProviders.SeaLevelProvider;
 import org.terasology.engine.SimpleUri;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.las.arena.ArenaLayout;
+import org.terasology.las.arena.BakedArenaRasterizer;
 import org.terasology.las.bases.BaseProvider;
 import org.terasology.las.bases.BaseRasterizer;
 import org.terasology.las.platform.FloatingPlatformProvider;
 import org.terasology.las.platform.FloatingPlatformRasterizer;
-import org.terasology.logic.spawner.Spawner;
+import org.terasology.las.profiling.WorldGenProfiler;
+import org.terasology.ligthandshadow.componentsystem.ArenaWorldGenerator;
+import org.terasology.ligthandshadow.componentsystem.LASArenas;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.registry.In;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.generation.BaseFacetedWorldGenerator;
@@ -34,13 +39,13 @@ import org.terasology.world.generator.RegisterWorldGenerator;
 import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
 
 @RegisterWorldGenerator(id = "LaSSimpleWorld", displayName = "Light and Shadow (Simple)")
-public class LaSSimpleWorldGenerator extends BaseFacetedWorldGenerator {
+public class LaSSimpleWorldGenerator extends BaseFacetedWorldGenerator implements SpawnRegion, ArenaWorldGenerator {
     @In
     private WorldGeneratorPluginLibrary worldGeneratorPluginLibrary;
     @In
     private BlockManager blockManager;
 
-    private final Spawner spawner = new LaSSpawner();
+    private final LaSSpawner spawner = new LaSSpawner();
 
     private BlockTheme theme;
 
@@ -54,6 +59,21 @@ public class LaSSimpleWorldGenerator extends BaseFacetedWorldGenerator {
         return pos != null ? pos : super.getSpawnPosition(entity);
     }
 
+    @Override
+    public Vector3f getSpawnRegionCenter() {
+        return spawner.getSpawnRegionCenter();
+    }
+
+    @Override
+    public Vector3i getSpawnRegionDistance() {
+        return spawner.getSpawnRegionDistance();
+    }
+
+    @Override
+    public int getArenaCount() {
+        return LASArenas.MAX_COUNT;
+    }
+
     @Override
     protected WorldBuilder createWorld() {
         int seaLevel = 0;
@@ -65,14 +85,22 @@ public class LaSSimpleWorldGenerator extends BaseFacetedWorldGenerator {
                 .registerFamily(DefaultBlockType.FENCE, "Fences:Fence")
                 .build();
 
+        LaSSurfaceProvider surfaceProvider = new LaSSurfaceProvider();
+        BaseProvider baseProvider = new BaseProvider();
+        FloatingPlatformProvider platformProvider = new FloatingPlatformProvider();
+        ArenaLayout arenaLayout = new ArenaLayout(surfaceProvider.getSurface(), baseProvider.getBases(),
+                platformProvider.getPlatforms());
+
         return new WorldBuilder(worldGeneratorPluginLibrary)
-                .addProvider(new LaSSurfaceProvider())
+                .addProvider(surfaceProvider)
+                .addProvider(new LaSSurfaceHeightFacetProvider())
                 .addProvider(new SeaLevelProvider(0))
-                .addProvider(new BaseProvider())
-                .addProvider(new FloatingPlatformProvider())
+                .addProvider(baseProvider)
+                .addProvider(platformProvider)
                 .addPlugins()
-                .addRasterizer(new LaSSimpleWorldRasterizer())
-                .addRasterizer(new FloatingPlatformRasterizer())
-                .addRasterizer(new BaseRasterizer());
+                .addRasterizer(new BakedArenaRasterizer(getUri().toString(), this::getWorldSeed, arenaLayout,
+                        WorldGenProfiler.wrap(new LaSSimpleWorldRasterizer()),
+                        WorldGenProfiler.wrap(new FloatingPlatformRasterizer()),
+                        WorldGenProfiler.wrap(new BaseRasterizer())));
     }
 }
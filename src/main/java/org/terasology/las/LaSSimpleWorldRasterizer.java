@@ -16,31 +16,123 @@
 package org.terasology.las;
 
 import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.generation.Region;
 import org.terasology.world.generation.WorldRasterizer;
-import org.terasology.world.generation.facets.SurfaceHeightFacet;
 
+/**
+ * Fills everything below the surface height with dirt.
+ * <p>
+ * By default the chunk is rasterized column by column: the surface height is looked up once per (x, z)
+ * and the blocks below it are written as one contiguous span. Chunks that lie entirely above the surface
+ * are skipped, and chunks that lie entirely below it are filled without consulting the facet again.
+ * The column tops are kept in a per-thread array between the two passes, so the facet is read exactly once per column.
+ * The per-voxel loop is kept for comparison and can be selected through the constructor.
+ */
 public class LaSSimpleWorldRasterizer implements WorldRasterizer {
+    private static final ThreadLocal<int[]> COLUMN_TOPS =
+            ThreadLocal.withInitial(() -> new int[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z]);
+
+    private final boolean columnMode;
     private Block dirt;
 
+    public LaSSimpleWorldRasterizer() {
+        this(true);
+    }
+
+    /**
+     * @param columnMode true to rasterize per column, false to use the per-voxel loop
+     */
+    public LaSSimpleWorldRasterizer(boolean columnMode) {
+        this.columnMode = columnMode;
+    }
+
     @Override
     public void initialize() {
-        dirt = CoreRegistry.get(BlockManager.class).getBlock("CoreBlocks:Dirt");
+        dirt = LaSBlockPalette.of(CoreRegistry.get(BlockManager.class)).get(LaSBlockPalette.DIRT);
     }
 
     @Override
     public void generateChunk(CoreChunk chunk, Region chunkRegion) {
-        SurfaceHeightFacet surfaceHeightFacet = chunkRegion.getFacet(SurfaceHeightFacet.class);
-        for (Vector3i position : chunkRegion.getRegion()) {
+        AnalyticSurfaceHeightFacet surfaceHeightFacet = chunkRegion.getFacet(AnalyticSurfaceHeightFacet.class);
+        if (columnMode) {
+            generateColumns(chunk, chunkRegion.getRegion(), surfaceHeightFacet);
+        } else {
+            generateVoxels(chunk, chunkRegion.getRegion(), surfaceHeightFacet);
+        }
+    }
+
+    private void generateVoxels(CoreChunk chunk, Region3i region, AnalyticSurfaceHeightFacet surfaceHeightFacet) {
+        for (Vector3i position : region) {
             float surfaceHeight = surfaceHeightFacet.getWorld(position.x, position.z);
             if (position.y < surfaceHeight) {
                 chunk.setBlock(ChunkMath.calcBlockPos(position), dirt);
             }
         }
     }
+
+    private void generateColumns(CoreChunk chunk, Region3i region, AnalyticSurfaceHeightFacet surfaceHeightFacet) {
+        int minX = region.minX();
+        int minY = region.minY();
+        int minZ = region.minZ();
+        int sizeX = region.sizeX();
+        int sizeY = region.sizeY();
+        int sizeZ = region.sizeZ();
+
+        // A block at height y is solid iff y < surfaceHeight, i.e. iff y < ceil(surfaceHeight).
+        // The first pass only reads the facet so that chunks fully above or below the surface are detected early.
+        int[] tops = COLUMN_TOPS.get();
+        if (tops.length < sizeX * sizeZ) {
+            tops = new int[sizeX * sizeZ];
+            COLUMN_TOPS.set(tops);
+        }
+        int lowestTop = Integer.MAX_VALUE;
+        int highestTop = Integer.MIN_VALUE;
+        for (int z = 0; z < sizeZ; z++) {
+            for (int x = 0; x < sizeX; x++) {
+                int top = TeraMath.ceilToInt(surfaceHeightFacet.getWorld(minX + x, minZ + z));
+                tops[z * sizeX + x] = top;
+                lowestTop = Math.min(lowestTop, top);
+                highestTop = Math.max(highestTop, top);
+            }
+        }
+
+        if (highestTop <= minY) {
+            // the whole chunk is above the surface
+            return;
+        }
+
+        if (lowestTop >= minY + sizeY) {
+            // the whole chunk is below the surface
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    fillSpan(chunk, x, z, 0, sizeY);
+                }
+            }
+            return;
+        }
+
+        for (int z = 0; z < sizeZ; z++) {
+            for (int x = 0; x < sizeX; x++) {
+                int top = tops[z * sizeX + x] - minY;
+                fillSpan(chunk, x, z, 0, Math.min(top, sizeY));
+            }
+        }
+    }
+
+    /**
+     * Fills the relative column (x, z) from {@code fromY} (inclusive) to {@code toY} (exclusive).
+     */
+    private void fillSpan(CoreChunk chunk, int x, int z, int fromY, int toY) {
+        for (int y = fromY; y < toY; y++) {
+            chunk.setBlock(x, y, z, dirt);
+        }
+    }
 }
@@ -17,18 +17,31 @@
 package org.terasology.las;
 
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.ligthandshadow.componentsystem.LASArenas;
 import org.terasology.logic.spawner.Spawner;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.world.generation.World;
 
 /**
- * TODO Type description
+ * Spawns new players above the floating platform, and declares the area around it as the spawn region.
  */
-public class LaSSpawner implements Spawner {
+public class LaSSpawner implements Spawner, SpawnRegion {
+    private static final Vector3i SPAWN_REGION_DISTANCE = new Vector3i(2, 1, 2);
 
     @Override
     public Vector3f getSpawnPosition(World world, EntityRef clientEntity) {
-        return new Vector3f(0, 65, 0);
+        return getSpawnRegionCenter();
+    }
+
+    @Override
+    public Vector3f getSpawnRegionCenter() {
+        return new Vector3f(LASArenas.SPAWN_POSITION);
+    }
+
+    @Override
+    public Vector3i getSpawnRegionDistance() {
+        return new Vector3i(SPAWN_REGION_DISTANCE);
     }
 
 }
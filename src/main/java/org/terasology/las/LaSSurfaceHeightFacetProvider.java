@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las;
+
+import org.terasology.math.geom.Rect2i;
+import org.terasology.world.generation.Border3D;
+import org.terasology.world.generation.Facet;
+import org.terasology.world.generation.FacetProvider;
+import org.terasology.world.generation.GeneratingRegion;
+import org.terasology.world.generation.Produces;
+import org.terasology.world.generation.Requires;
+import org.terasology.world.generation.facets.SurfaceHeightFacet;
+
+import java.util.Arrays;
+
+/**
+ * Fills the engine's {@link SurfaceHeightFacet} from the {@link AnalyticSurfaceHeightFacet}, for plugins from other
+ * modules that require it.
+ * <p>
+ * The world builder only runs providers whose facets are required by a rasterizer or another provider, so with no
+ * such plugin installed this provider is skipped and no per-region height array is allocated.
+ */
+@Produces(SurfaceHeightFacet.class)
+@Requires(@Facet(AnalyticSurfaceHeightFacet.class))
+public class LaSSurfaceHeightFacetProvider implements FacetProvider {
+
+    @Override
+    public void setSeed(long seed) {
+    }
+
+    @Override
+    public void process(GeneratingRegion region) {
+        SurfaceFunction surface = region.getRegionFacet(AnalyticSurfaceHeightFacet.class).getFunction();
+        Border3D border = region.getBorderForFacet(SurfaceHeightFacet.class);
+        SurfaceHeightFacet facet = new SurfaceHeightFacet(region.getRegion(), border);
+        if (surface instanceof SurfaceFunction.Constant) {
+            Arrays.fill(facet.getInternal(), ((SurfaceFunction.Constant) surface).getHeight());
+        } else {
+            Rect2i processRegion = facet.getWorldRegion();
+            for (int z = processRegion.minY(); z <= processRegion.maxY(); z++) {
+                for (int x = processRegion.minX(); x <= processRegion.maxX(); x++) {
+                    facet.setWorld(x, z, surface.getHeight(x, z));
+                }
+            }
+        }
+        region.setRegionFacet(SurfaceHeightFacet.class, facet);
+    }
+}
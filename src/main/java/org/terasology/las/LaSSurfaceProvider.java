@@ -15,16 +15,40 @@
  */
 package org.terasology.las;
 
-import org.terasology.math.geom.BaseVector2i;
-import org.terasology.math.geom.Rect2i;
-import org.terasology.world.generation.Border3D;
+import org.terasology.las.profiling.ProfiledStage;
+import org.terasology.las.profiling.StageStats;
+import org.terasology.las.profiling.WorldGenProfiler;
 import org.terasology.world.generation.FacetProvider;
 import org.terasology.world.generation.GeneratingRegion;
 import org.terasology.world.generation.Produces;
-import org.terasology.world.generation.facets.SurfaceHeightFacet;
 
-@Produces(SurfaceHeightFacet.class)
+/**
+ * Provides the LaS surface from a {@link SurfaceFunction}.
+ * <p>
+ * LaS providers and rasterizers read the shared {@link AnalyticSurfaceHeightFacet}, which keeps no per-cell storage.
+ * Plugins that need the engine's SurfaceHeightFacet get it from {@link LaSSurfaceHeightFacetProvider}.
+ */
+@Produces(AnalyticSurfaceHeightFacet.class)
 public class LaSSurfaceProvider implements FacetProvider {
+    private static final float DEFAULT_HEIGHT = 10f;
+    private static final StageStats STATS = WorldGenProfiler.stage(LaSSurfaceProvider.class.getSimpleName());
+
+    private final AnalyticSurfaceHeightFacet analyticFacet;
+
+    public LaSSurfaceProvider() {
+        this(SurfaceFunction.constant(DEFAULT_HEIGHT));
+    }
+
+    public LaSSurfaceProvider(SurfaceFunction surface) {
+        this.analyticFacet = new AnalyticSurfaceHeightFacet(surface);
+    }
+
+    /**
+     * @return the surface this provider publishes
+     */
+    public SurfaceFunction getSurface() {
+        return analyticFacet.getFunction();
+    }
 
     @Override
     public void setSeed(long seed) {
@@ -32,19 +56,8 @@ public class LaSSurfaceProvider implements FacetProvider {
 
     @Override
     public void process(GeneratingRegion region) {
-        // Create our surface height facet (we will get into borders later)
-        Border3D border = region.getBorderForFacet(SurfaceHeightFacet.class);
-        SurfaceHeightFacet facet = new SurfaceHeightFacet(region.getRegion(), border);
-
-        // Loop through every position in our 2d array
-        Rect2i processRegion = facet.getWorldRegion();
-        for (BaseVector2i position : processRegion.contents()) {
-            facet.setWorld(position, 10f);
-        }
-
-        // Pass our newly created and populated facet to the region
-        region.setRegionFacet(SurfaceHeightFacet.class, facet);
+        long profileStart = ProfiledStage.start();
+        region.setRegionFacet(AnalyticSurfaceHeightFacet.class, analyticFacet);
+        ProfiledStage.stop(STATS, profileStart);
     }
-
-
 }
@@ -23,8 +23,9 @@ import org.terasology.core.world.generator.rasterizers.SolidRasterizer;
 import org.terasology.core.world.generator.rasterizers.TreeRasterizer;
 import org.terasology.engine.SimpleUri;
 import org.terasology.entitySystem.entity.EntityRef;
-import org.terasology.logic.spawner.Spawner;
+import org.terasology.las.profiling.WorldGenProfiler;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.registry.In;
 import org.terasology.staticCities.BlockTheme;
@@ -76,11 +77,11 @@ import org.terasology.world.generator.RegisterWorldGenerator;
 import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
 
 @RegisterWorldGenerator(id = "las", displayName = "Light & Shadow World")
-public class LaSWorldGenerator extends CityWorldGenerator {
+public class LaSWorldGenerator extends CityWorldGenerator implements SpawnRegion {
 
     World world;
 
-    private final Spawner spawner = new LaSSpawner();
+    private final LaSSpawner spawner = new LaSSpawner();
 
     @In
     private BlockManager blockManager;
@@ -100,6 +101,16 @@ public class LaSWorldGenerator extends CityWorldGenerator {
         return pos != null ? pos : super.getSpawnPosition(entity);
     }
 
+    @Override
+    public Vector3f getSpawnRegionCenter() {
+        return spawner.getSpawnRegionCenter();
+    }
+
+    @Override
+    public Vector3i getSpawnRegionDistance() {
+        return spawner.getSpawnRegionDistance();
+    }
+
     @Override
     protected WorldBuilder createWorld() {
         int seaLevel = 2;
@@ -162,30 +173,30 @@ public class LaSWorldGenerator extends CityWorldGenerator {
                 .addProvider(new SettlementFacetProvider())
                 .addProvider(new FloraFacetProvider())
                 .addProvider(new TreeFacetProvider())
-                .addRasterizer(new SolidRasterizer())
+                .addRasterizer(WorldGenProfiler.wrap(new SolidRasterizer()))
                 .addPlugins()
                 .addEntities(new SettlementEntityProvider())
-                .addRasterizer(new RoadRasterizer(theme))
-                .addRasterizer(new TownWallRasterizer(theme))
-                .addRasterizer(new SimpleFenceRasterizer(theme))
-                .addRasterizer(new RectPartRasterizer(theme))
-                .addRasterizer(new HollowBuildingPartRasterizer(theme))
-                .addRasterizer(new RoundPartRasterizer(theme))
-                .addRasterizer(new StaircaseRasterizer(theme))
-                .addRasterizer(new FlatRoofRasterizer(theme))
-                .addRasterizer(new SaddleRoofRasterizer(theme))
-                .addRasterizer(new PentRoofRasterizer(theme))
-                .addRasterizer(new HipRoofRasterizer(theme))
-                .addRasterizer(new ConicRoofRasterizer(theme))
-                .addRasterizer(new DomeRoofRasterizer(theme))
-                .addRasterizer(new SimpleWindowRasterizer(theme))
-                .addRasterizer(new RectWindowRasterizer(theme))
-                .addRasterizer(new SimpleDoorRasterizer(theme))
-                .addRasterizer(new WingDoorRasterizer(theme))
-                .addRasterizer(new SingleBlockRasterizer(theme))
-                .addRasterizer(new ColumnRasterizer(theme))
-                .addRasterizer(new LaSFloraRasterizer())
-                .addRasterizer(new TreeRasterizer());
+                .addRasterizer(WorldGenProfiler.wrap(new RoadRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new TownWallRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new SimpleFenceRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new RectPartRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new HollowBuildingPartRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new RoundPartRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new StaircaseRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new FlatRoofRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new SaddleRoofRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new PentRoofRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new HipRoofRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new ConicRoofRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new DomeRoofRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new SimpleWindowRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new RectWindowRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new SimpleDoorRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new WingDoorRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new SingleBlockRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new ColumnRasterizer(theme)))
+                .addRasterizer(WorldGenProfiler.wrap(new LaSFloraRasterizer()))
+                .addRasterizer(WorldGenProfiler.wrap(new TreeRasterizer()));
         return worldBuilder;
     }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las;
+
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * Declares the area new players spawn in, so that it can be generated and kept loaded before anyone joins.
+ *
+ * @see SpawnRegionSystem
+ */
+public interface SpawnRegion {
+
+    /**
+     * @return the center of the spawn area; a new vector on every call
+     */
+    Vector3f getSpawnRegionCenter();
+
+    /**
+     * @return the size in chunks of the region kept loaded around the center, see RelevanceRegionComponent
+     */
+    Vector3i getSpawnRegionDistance();
+}
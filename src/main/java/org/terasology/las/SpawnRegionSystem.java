@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.ligthandshadow.componentsystem.RelevanceAnchors;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.In;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.generator.WorldGenerator;
+
+/**
+ * Pins the spawn area declared by a LaS world generator in memory for as long as the server runs.
+ * <p>
+ * The area is requested as soon as the game starts. Its chunks are then generated by the engine's chunk workers in
+ * the background, so the first players to join are served from memory instead of waiting on world generation.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class SpawnRegionSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final LatencyHistogram UPDATE_LATENCY = LASMetrics.handler("SpawnRegionSystem.update");
+
+    private static final Logger logger = LoggerFactory.getLogger(SpawnRegionSystem.class);
+
+    @In
+    private WorldGenerator worldGenerator;
+    @In
+    private WorldProvider worldProvider;
+    @In
+    private EntityManager entityManager;
+
+    private EntityRef anchor = EntityRef.NULL;
+    private Vector3f center;
+    private Vector3i distance;
+    private long requestedAt;
+
+    @Override
+    public void postBegin() {
+        if (worldGenerator instanceof SpawnRegion) {
+            SpawnRegion region = (SpawnRegion) worldGenerator;
+            center = region.getSpawnRegionCenter();
+            distance = region.getSpawnRegionDistance();
+            anchor = RelevanceAnchors.create(entityManager, center, distance);
+            requestedAt = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        LASMetrics.time(UPDATE_LATENCY, () -> {
+            if (center != null && RelevanceAnchors.isReady(worldProvider, center, distance)) {
+                logger.info("Spawn area around {} loaded after {} ms", center,
+                        System.currentTimeMillis() - requestedAt);
+                center = null;
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        anchor.destroy();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las;
+
+/**
+ * Describes a surface height that can be computed for any world column without storing it.
+ */
+@FunctionalInterface
+public interface SurfaceFunction {
+
+    /**
+     * @param x the world x coordinate
+     * @param z the world z coordinate
+     * @return the surface height at that column
+     */
+    float getHeight(int x, int z);
+
+    /**
+     * @param height the height of the surface everywhere
+     * @return a flat surface
+     */
+    static SurfaceFunction constant(float height) {
+        return new Constant(height);
+    }
+
+    /**
+     * @param height the height at the world origin
+     * @param slopeX the height change per block along x
+     * @param slopeZ the height change per block along z
+     * @return a planar surface
+     */
+    static SurfaceFunction planar(float height, float slopeX, float slopeZ) {
+        return (x, z) -> height + x * slopeX + z * slopeZ;
+    }
+
+    /**
+     * A surface with the same height in every column.
+     */
+    final class Constant implements SurfaceFunction {
+        private final float height;
+
+        private Constant(float height) {
+            this.height = height;
+        }
+
+        public float getHeight() {
+            return height;
+        }
+
+        @Override
+        public float getHeight(int x, int z) {
+            return height;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.arena;
+
+import org.terasology.las.LaSBlockPalette;
+import org.terasology.las.SurfaceFunction;
+import org.terasology.las.bases.Base;
+import org.terasology.las.platform.FloatingPlatform;
+import org.terasology.las.platform.FloatingPlatformPlan;
+import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Describes the fixed part of the LaS arena: the chunks it occupies and a hash of everything that decides its blocks.
+ * <p>
+ * The hash covers the surface height of every arena column, the bases, the floating platforms with their compiled
+ * plans, and the URIs of all palette blocks, so changing any of them invalidates previously baked arenas.
+ * Bump {@link #VERSION} when the way a rasterizer turns these inputs into blocks changes.
+ */
+public final class ArenaLayout {
+    public static final int VERSION = 2;
+
+    /**
+     * The world area covered by the bases, the floating platform and its walls, and the guidance NPC of the default
+     * arena. The additional arenas of {@code LASArenas} are generated normally and are not baked.
+     */
+    private static final Region3i ARENA_AREA = Region3i.createFromMinMax(
+            new Vector3i(LASUtils.CENTER_BLACK_BASE_POSITION.x - LASUtils.BASE_EXTENT, 0, -28),
+            new Vector3i(LASUtils.CENTER_RED_BASE_POSITION.x + LASUtils.BASE_EXTENT, 64, 28));
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final SurfaceFunction surface;
+    private final Collection<Base> bases;
+    private final Collection<FloatingPlatform> platforms;
+
+    /**
+     * @param surface   the surface height of the world
+     * @param bases     the bases placed in the arena
+     * @param platforms the floating platforms placed in the arena
+     */
+    public ArenaLayout(SurfaceFunction surface, Collection<Base> bases, Collection<FloatingPlatform> platforms) {
+        this.surface = surface;
+        this.bases = bases;
+        this.platforms = platforms;
+    }
+
+    /**
+     * @return the chunk positions that make up the arena
+     */
+    public Region3i getChunkRegion() {
+        return Region3i.createFromMinMax(ChunkMath.calcChunkPos(ARENA_AREA.min()),
+                ChunkMath.calcChunkPos(ARENA_AREA.max()));
+    }
+
+    /**
+     * @return a hash of the arena layout parameters
+     */
+    public long hash() {
+        long hash = mix(FNV_OFFSET, VERSION);
+        hash = mix(hash, ARENA_AREA);
+        for (int id = 0; id < LaSBlockPalette.size(); id++) {
+            hash = mix(hash, LaSBlockPalette.getUri(id));
+        }
+        for (int z = ARENA_AREA.minZ(); z <= ARENA_AREA.maxZ(); z++) {
+            for (int x = ARENA_AREA.minX(); x <= ARENA_AREA.maxX(); x++) {
+                hash = mix(hash, Float.floatToIntBits(surface.getHeight(x, z)));
+            }
+        }
+        for (Base base : bases) {
+            hash = mix(hash, base.getArea());
+            hash = mix(hash, base.getFlagArea());
+            hash = mix(hash, base.getTeam());
+            hash = mix(hash, base.getBaseStoneBlock());
+            hash = mix(hash, base.getFlagBlock());
+        }
+        hash = mix(hash, FloatingPlatformPlan.WALL_HEIGHT);
+        for (FloatingPlatform platform : platforms) {
+            Rect2i area = platform.getArea();
+            hash = mix(hash, area.minX());
+            hash = mix(hash, area.minY());
+            hash = mix(hash, area.maxX());
+            hash = mix(hash, area.maxY());
+            hash = mix(hash, platform.getBaseHeight());
+            hash = mix(hash, platform.getRedTeleporterRegion());
+            hash = mix(hash, platform.getBlackTeleporterRegion());
+            hash = mix(hash, platform.getPlan().contentHash());
+        }
+        return hash;
+    }
+
+    /**
+     * @return a 64-bit FNV-1a hash of the string
+     */
+    public static long hash(String value) {
+        return mix(FNV_OFFSET, value);
+    }
+
+    private static long mix(long hash, Region3i region) {
+        hash = mix(hash, region.minX());
+        hash = mix(hash, region.minY());
+        hash = mix(hash, region.minZ());
+        hash = mix(hash, region.maxX());
+        hash = mix(hash, region.maxY());
+        return mix(hash, region.maxZ());
+    }
+
+    private static long mix(long hash, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        hash = mix(hash, bytes.length);
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
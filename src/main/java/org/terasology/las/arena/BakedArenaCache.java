@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.arena;
+
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.ligthandshadow.files.SandboxFiles;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.CoreChunk;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A file of pre-generated arena chunks, keyed by world seed, generator id and {@link ArenaLayout#hash()}.
+ * <p>
+ * The key is part of the file name, so a different seed, generator or layout simply finds no file and bakes a new one.
+ * Files are kept in the engine's sandbox directory. A loaded file is held in memory and chunks are copied straight
+ * out of it. Block ids are not stable between games, so the file stores its own palette of block URIs and chunk
+ * contents as indices into it.
+ * <p>
+ * File layout: magic, format version, layout hash, seed (length-prefixed UTF-8), palette size, palette URIs
+ * (length-prefixed UTF-8), chunk count, then per chunk its position (3 ints) followed by one short per block in
+ * x, y, z order.
+ */
+public class BakedArenaCache {
+    private static final Logger logger = LoggerFactory.getLogger(BakedArenaCache.class);
+
+    private static final int MAGIC = 0x4c615341;
+    private static final int FORMAT_VERSION = 2;
+    private static final int CHUNK_VOLUME = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z;
+
+    private final SandboxFiles files;
+    private final String file;
+    private final String seed;
+    private final long layoutHash;
+    private final Region3i chunkRegion;
+    private final BlockManager blockManager;
+
+    private final Map<Vector3i, Integer> loadedOffsets = Maps.newHashMap();
+    private ByteBuffer loaded;
+    private Block[] loadedPalette;
+
+    private final ConcurrentMap<Vector3i, short[]> baked = Maps.newConcurrentMap();
+    private final List<Block> bakePalette = new ArrayList<>();
+    private final Map<Block, Short> bakePaletteIndex = Maps.newHashMap();
+    private final AtomicBoolean written = new AtomicBoolean();
+
+    /**
+     * @param files the sandbox the cache file is kept in
+     * @param generatorId the world generator uri
+     * @param seed the world seed
+     * @param layout the layout of the arena
+     * @param blockManager the block manager of the current world
+     */
+    public BakedArenaCache(SandboxFiles files, String generatorId, String seed, ArenaLayout layout,
+                           BlockManager blockManager) {
+        this.files = files;
+        this.seed = seed;
+        this.layoutHash = layout.hash();
+        this.chunkRegion = layout.getChunkRegion();
+        this.blockManager = blockManager;
+        this.file = String.format("las-arena-%s-%016x-%016x.bin",
+                generatorId.replace(':', '_'), ArenaLayout.hash(seed), layoutHash);
+        load();
+    }
+
+    /**
+     * @return true if the chunk is part of the arena
+     */
+    public boolean isArenaChunk(Vector3i chunkPos) {
+        return chunkRegion.encompasses(chunkPos);
+    }
+
+    /**
+     * Copies a baked chunk into the given chunk.
+     *
+     * @return false if the chunk is not in the cache
+     */
+    public boolean restore(CoreChunk chunk, Vector3i chunkPos) {
+        Integer offset = loadedOffsets.get(chunkPos);
+        if (offset == null) {
+            return false;
+        }
+        int index = offset;
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    chunk.setBlock(x, y, z, loadedPalette[loaded.getShort(index)]);
+                    index += Short.BYTES;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a freshly generated arena chunk. Once every arena chunk has been recorded, the cache file is written.
+     */
+    public void bake(CoreChunk chunk, Vector3i chunkPos) {
+        if (isLoaded() || written.get()) {
+            return;
+        }
+        short[] blocks = new short[CHUNK_VOLUME];
+        int index = 0;
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    blocks[index++] = paletteIndex(chunk.getBlock(x, y, z));
+                }
+            }
+        }
+        baked.put(new Vector3i(chunkPos), blocks);
+        int arenaChunks = chunkRegion.sizeX() * chunkRegion.sizeY() * chunkRegion.sizeZ();
+        if (baked.size() == arenaChunks && written.compareAndSet(false, true)) {
+            write();
+        }
+    }
+
+    /**
+     * @return true if a baked arena was loaded for this key
+     */
+    public boolean isLoaded() {
+        return !loadedOffsets.isEmpty();
+    }
+
+    private synchronized short paletteIndex(Block block) {
+        Short index = bakePaletteIndex.get(block);
+        if (index == null) {
+            index = (short) bakePalette.size();
+            bakePalette.add(block);
+            bakePaletteIndex.put(block, index);
+        }
+        return index;
+    }
+
+    private void load() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try {
+            files.read(file, in -> {
+                byte[] transfer = new byte[1 << 16];
+                int count;
+                while ((count = in.read(transfer)) >= 0) {
+                    content.write(transfer, 0, count);
+                }
+            });
+        } catch (FileNotFoundException e) {
+            return;
+        } catch (IOException e) {
+            logger.warn("Failed to read baked arena {}, it will be regenerated", file, e);
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || buffer.getLong() != layoutHash
+                    || !seed.equals(readString(buffer))) {
+                logger.info("Ignoring outdated baked arena {}", file);
+                return;
+            }
+            Block[] palette = new Block[buffer.getInt()];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = blockManager.getBlock(readString(buffer));
+            }
+            int chunks = buffer.getInt();
+            Map<Vector3i, Integer> offsets = Maps.newHashMapWithExpectedSize(chunks);
+            for (int i = 0; i < chunks; i++) {
+                Vector3i pos = new Vector3i(buffer.getInt(), buffer.getInt(), buffer.getInt());
+                offsets.put(pos, buffer.position());
+                buffer.position(buffer.position() + CHUNK_VOLUME * Short.BYTES);
+            }
+            this.loadedPalette = palette;
+            this.loaded = buffer;
+            this.loadedOffsets.putAll(offsets);
+            logger.info("Loaded {} baked arena chunks from {}", chunks, file);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load baked arena {}, it will be regenerated", file, e);
+        }
+    }
+
+    private void write() {
+        try {
+            files.write(file, stream -> {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(layoutHash);
+                writeString(out, seed);
+                List<Block> palette;
+                synchronized (this) {
+                    palette = new ArrayList<>(bakePalette);
+                }
+                out.writeInt(palette.size());
+                for (Block block : palette) {
+                    writeString(out, block.getURI().toString());
+                }
+                out.writeInt(baked.size());
+                ByteBuffer chunkBytes = ByteBuffer.allocate(CHUNK_VOLUME * Short.BYTES);
+                for (Map.Entry<Vector3i, short[]> entry : baked.entrySet()) {
+                    out.writeInt(entry.getKey().x);
+                    out.writeInt(entry.getKey().y);
+                    out.writeInt(entry.getKey().z);
+                    chunkBytes.clear();
+                    chunkBytes.asShortBuffer().put(entry.getValue());
+                    out.write(chunkBytes.array());
+                }
+                out.flush();
+            });
+            logger.info("Baked {} arena chunks into {}", baked.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to write baked arena {}", file, e);
+        }
+        baked.clear();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xffff];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
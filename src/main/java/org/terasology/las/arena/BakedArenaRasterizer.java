@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.arena;
+
+import com.google.common.collect.ImmutableList;
+import org.terasology.ligthandshadow.files.SandboxFiles;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.generation.Region;
+import org.terasology.world.generation.WorldRasterizer;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs the arena rasterizers, or copies their output from a {@link BakedArenaCache} when one exists for this world.
+ * <p>
+ * Chunks outside the arena are always passed to the wrapped rasterizers. Without a sandbox to keep the cache in,
+ * every chunk is. The cache can also be turned off for all generators, so that benchmarks always measure the
+ * rasterizers.
+ */
+public class BakedArenaRasterizer implements WorldRasterizer {
+    private static volatile boolean cacheEnabled = true;
+
+    private final String generatorId;
+    private final Supplier<String> seed;
+    private final ArenaLayout layout;
+    private final List<WorldRasterizer> rasterizers;
+
+    private BakedArenaCache cache;
+
+    /**
+     * @param generatorId the id of the generator, part of the cache key
+     * @param seed supplies the world seed once it is known
+     * @param layout the inputs of the arena rasterizers, part of the cache key
+     * @param rasterizers the rasterizers whose output is baked, in order
+     */
+    public BakedArenaRasterizer(String generatorId, Supplier<String> seed, ArenaLayout layout,
+                                WorldRasterizer... rasterizers) {
+        this.generatorId = generatorId;
+        this.seed = seed;
+        this.layout = layout;
+        this.rasterizers = ImmutableList.copyOf(rasterizers);
+    }
+
+    public static boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    /**
+     * Takes effect for rasterizers initialized afterwards.
+     */
+    public static void setCacheEnabled(boolean value) {
+        cacheEnabled = value;
+    }
+
+    @Override
+    public void initialize() {
+        for (WorldRasterizer rasterizer : rasterizers) {
+            rasterizer.initialize();
+        }
+        SandboxFiles files = cacheEnabled ? SandboxFiles.open() : null;
+        if (files != null) {
+            cache = new BakedArenaCache(files, generatorId, seed.get(), layout, CoreRegistry.get(BlockManager.class));
+        }
+    }
+
+    @Override
+    public void generateChunk(CoreChunk chunk, Region chunkRegion) {
+        Vector3i chunkPos = chunk.getPosition();
+        boolean arenaChunk = cache != null && cache.isArenaChunk(chunkPos);
+        if (arenaChunk && cache.restore(chunk, chunkPos)) {
+            return;
+        }
+        for (WorldRasterizer rasterizer : rasterizers) {
+            rasterizer.generateChunk(chunk, chunkRegion);
+        }
+        if (arenaChunk) {
+            cache.bake(chunk, chunkPos);
+        }
+    }
+}
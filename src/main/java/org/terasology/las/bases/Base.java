@@ -20,10 +20,21 @@ import org.terasology.math.Region3i;
 public class Base {
     private Region3i area;
     private Region3i flagArea;
+    private int team;
+    private int baseStoneBlock;
+    private int flagBlock;
 
-    public Base(Region3i baseRegion, Region3i flagRegion) {
+    /**
+     * @param team           the {@link org.terasology.ligthandshadow.componentsystem.LASTeams} id of the owning team
+     * @param baseStoneBlock the {@link org.terasology.las.LaSBlockPalette} id of the block filling the base area
+     * @param flagBlock      the palette id of the block placed in the flag area
+     */
+    public Base(Region3i baseRegion, Region3i flagRegion, int team, int baseStoneBlock, int flagBlock) {
         this.area = baseRegion;
         this.flagArea = flagRegion;
+        this.team = team;
+        this.baseStoneBlock = baseStoneBlock;
+        this.flagBlock = flagBlock;
     }
 
     public Region3i getArea() {
@@ -33,4 +44,25 @@ public class Base {
     public Region3i getFlagArea() {
         return flagArea;
     }
+
+    /**
+     * @return the id of the team owning this base
+     */
+    public int getTeam() {
+        return team;
+    }
+
+    /**
+     * @return the palette id of the base stone block
+     */
+    public int getBaseStoneBlock() {
+        return baseStoneBlock;
+    }
+
+    /**
+     * @return the palette id of the flag block
+     */
+    public int getFlagBlock() {
+        return flagBlock;
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.bases;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets bases by the chunks their base and flag areas touch, so that a chunk only sees the bases it intersects.
+ * The index is immutable once built and can be queried from several world generation threads.
+ */
+public class BaseIndex {
+    private final Map<Vector3i, List<Base>> basesByChunk;
+
+    public BaseIndex(Collection<Base> bases) {
+        Map<Vector3i, List<Base>> buckets = Maps.newHashMap();
+        for (Base base : bases) {
+            addToBuckets(buckets, base, base.getArea());
+            addToBuckets(buckets, base, base.getFlagArea());
+        }
+
+        Map<Vector3i, List<Base>> frozen = Maps.newHashMapWithExpectedSize(buckets.size());
+        for (Map.Entry<Vector3i, List<Base>> entry : buckets.entrySet()) {
+            frozen.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+        }
+        this.basesByChunk = frozen;
+    }
+
+    /**
+     * @param chunkPos the chunk position
+     * @return the bases whose base or flag area intersects that chunk
+     */
+    public List<Base> getBases(Vector3i chunkPos) {
+        List<Base> bases = basesByChunk.get(chunkPos);
+        return bases != null ? bases : Collections.emptyList();
+    }
+
+    /**
+     * @return true if no base touches any chunk
+     */
+    public boolean isEmpty() {
+        return basesByChunk.isEmpty();
+    }
+
+    private static void addToBuckets(Map<Vector3i, List<Base>> buckets, Base base, Region3i area) {
+        Vector3i minChunk = ChunkMath.calcChunkPos(area.min());
+        Vector3i maxChunk = ChunkMath.calcChunkPos(area.max());
+        for (Vector3i chunkPos : Region3i.createFromMinMax(minChunk, maxChunk)) {
+            List<Base> bucket = buckets.computeIfAbsent(new Vector3i(chunkPos), pos -> new ArrayList<>());
+            if (!bucket.contains(base)) {
+                bucket.add(base);
+            }
+        }
+    }
+}
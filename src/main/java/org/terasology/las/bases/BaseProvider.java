@@ -16,7 +16,16 @@
 package org.terasology.las.bases;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.terasology.las.AnalyticSurfaceHeightFacet;
+import org.terasology.las.LaSBlockPalette;
+import org.terasology.las.profiling.ProfiledStage;
+import org.terasology.las.profiling.StageStats;
+import org.terasology.las.profiling.WorldGenProfiler;
+import org.terasology.ligthandshadow.componentsystem.LASArenas;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.generation.Border3D;
@@ -25,23 +34,28 @@ import org.terasology.world.generation.FacetProvider;
 import org.terasology.world.generation.GeneratingRegion;
 import org.terasology.world.generation.Produces;
 import org.terasology.world.generation.Requires;
-import org.terasology.world.generation.facets.SurfaceHeightFacet;
 
 import java.util.Collection;
+import java.util.Set;
 
+/**
+ * Provides the red and black base of every arena listed in {@link LASArenas}.
+ */
 @Produces(BaseFacet.class)
-@Requires(@Facet(SurfaceHeightFacet.class))
-
+@Requires(@Facet(AnalyticSurfaceHeightFacet.class))
 public class BaseProvider implements FacetProvider {
-    Region3i redBaseRegion = CreateBaseRegionFromVector(LASUtils.CENTER_RED_BASE_POSITION);
-    Region3i blackBaseRegion = CreateBaseRegionFromVector(LASUtils.CENTER_BLACK_BASE_POSITION);
+    private static final StageStats STATS = WorldGenProfiler.stage(BaseProvider.class.getSimpleName());
 
-    Region3i redFlagRegion = CreateFlagRegionFromVector(LASUtils.CENTER_RED_BASE_POSITION);
-    Region3i blackFlagRegion = CreateFlagRegionFromVector(LASUtils.CENTER_BLACK_BASE_POSITION);
+    private Collection<Base> fixedBases = createBases();
 
-    private Collection<Base> fixedBases = ImmutableSet.of(
-            new Base(redBaseRegion, redFlagRegion),
-            new Base(blackBaseRegion, blackFlagRegion));
+    private final BaseIndex baseIndex = new BaseIndex(fixedBases);
+
+    /**
+     * @return the bases this provider places
+     */
+    public Collection<Base> getBases() {
+        return fixedBases;
+    }
 
     @Override
     public void setSeed(long seed) {
@@ -49,13 +63,42 @@ public class BaseProvider implements FacetProvider {
 
     @Override
     public void process(GeneratingRegion region) {
+        long profileStart = ProfiledStage.start();
         Border3D border = region.getBorderForFacet(BaseFacet.class);
         BaseFacet facet = new BaseFacet(region.getRegion(), border);
 
-        for (Base base : fixedBases) {
-            facet.add(base);
+        Region3i worldRegion = region.getRegion();
+        Vector3i minChunk = ChunkMath.calcChunkPos(worldRegion.min());
+        Vector3i maxChunk = ChunkMath.calcChunkPos(worldRegion.max());
+        if (minChunk.equals(maxChunk)) {
+            for (Base base : baseIndex.getBases(minChunk)) {
+                facet.add(base);
+            }
+        } else {
+            Set<Base> bases = Sets.newLinkedHashSet();
+            for (Vector3i chunkPos : Region3i.createFromMinMax(minChunk, maxChunk)) {
+                bases.addAll(baseIndex.getBases(chunkPos));
+            }
+            for (Base base : bases) {
+                facet.add(base);
+            }
         }
         region.setRegionFacet(BaseFacet.class, facet);
+        ProfiledStage.stop(STATS, profileStart);
+    }
+
+    private Collection<Base> createBases() {
+        ImmutableSet.Builder<Base> bases = ImmutableSet.builder();
+        for (int arena = 0; arena < LASArenas.MAX_COUNT; arena++) {
+            Vector3i origin = LASArenas.getOrigin(arena);
+            Vector3i redCenter = new Vector3i(LASUtils.CENTER_RED_BASE_POSITION).add(origin);
+            Vector3i blackCenter = new Vector3i(LASUtils.CENTER_BLACK_BASE_POSITION).add(origin);
+            bases.add(new Base(CreateBaseRegionFromVector(redCenter), CreateFlagRegionFromVector(redCenter),
+                    LASTeams.RED, LaSBlockPalette.RED_BASE_STONE, LaSBlockPalette.RED_FLAG));
+            bases.add(new Base(CreateBaseRegionFromVector(blackCenter), CreateFlagRegionFromVector(blackCenter),
+                    LASTeams.BLACK, LaSBlockPalette.BLACK_BASE_STONE, LaSBlockPalette.BLACK_FLAG));
+        }
+        return bases.build();
     }
 
     private Region3i CreateBaseRegionFromVector(Vector3i centerBasePosition) {
@@ -15,10 +15,8 @@
  */
 package org.terasology.las.bases;
 
-import org.terasology.ligthandshadow.componentsystem.LASUtils;
-import org.terasology.math.ChunkMath;
+import org.terasology.las.LaSBlockPalette;
 import org.terasology.math.Region3i;
-import org.terasology.math.geom.Vector3i;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
@@ -27,43 +25,37 @@ import org.terasology.world.generation.Region;
 import org.terasology.world.generation.WorldRasterizer;
 
 public class BaseRasterizer implements WorldRasterizer {
-    private Block blackBaseStone;
-    private Block redBaseStone;
-    private Block redFlag;
-    private Block blackFlag;
-
+    private LaSBlockPalette palette;
 
     @Override
     public void initialize() {
-        blackBaseStone = CoreRegistry.get(BlockManager.class).getBlock(LASUtils.BLACK_BASE_STONE);
-        redBaseStone = CoreRegistry.get(BlockManager.class).getBlock(LASUtils.RED_BASE_STONE);
-        redFlag = CoreRegistry.get(BlockManager.class).getBlock(LASUtils.RED_FLAG_URI);
-        blackFlag = CoreRegistry.get(BlockManager.class).getBlock(LASUtils.BLACK_FLAG_URI);
+        palette = LaSBlockPalette.of(CoreRegistry.get(BlockManager.class));
     }
 
     @Override
     public void generateChunk(CoreChunk chunk, Region chunkRegion) {
         BaseFacet baseFacet = chunkRegion.getFacet(BaseFacet.class);
+        Region3i chunkArea = chunkRegion.getRegion();
 
+        //place blocks for each of the bases and flags, clipped to this chunk
         for (Base base : baseFacet.getBases()) {
-            Region3i baseRegion = base.getArea();
-            Region3i flagRegion = base.getFlagArea();
-
-            //place blocks for each of the bases and flags
-            for (Vector3i baseBlockPosition : baseRegion) {
-                if (chunkRegion.getRegion().encompasses(baseBlockPosition) && baseBlockPosition.x > 0) {
-                    chunk.setBlock(ChunkMath.calcBlockPos(baseBlockPosition), redBaseStone);
-                } else if (chunkRegion.getRegion().encompasses(baseBlockPosition)) {
-                    chunk.setBlock(ChunkMath.calcBlockPos(baseBlockPosition), blackBaseStone);
-                }
-            }
+            fillIntersection(chunk, chunkArea, base.getArea(), palette.get(base.getBaseStoneBlock()));
+            fillIntersection(chunk, chunkArea, base.getFlagArea(), palette.get(base.getFlagBlock()));
+        }
+    }
 
-            for (Vector3i flagPosition : flagRegion) {
-                //flag type depends on the x position of the flag to determine which base it's at
-                if (chunkRegion.getRegion().encompasses(flagPosition) && flagPosition.x > 0) {
-                    chunk.setBlock(ChunkMath.calcBlockPos(flagPosition), redFlag);
-                } else if (chunkRegion.getRegion().encompasses(flagPosition)) {
-                    chunk.setBlock(ChunkMath.calcBlockPos(flagPosition), blackFlag);
+    private void fillIntersection(CoreChunk chunk, Region3i chunkArea, Region3i area, Block block) {
+        int minX = Math.max(area.minX(), chunkArea.minX());
+        int minY = Math.max(area.minY(), chunkArea.minY());
+        int minZ = Math.max(area.minZ(), chunkArea.minZ());
+        int maxX = Math.min(area.maxX(), chunkArea.maxX());
+        int maxY = Math.min(area.maxY(), chunkArea.maxY());
+        int maxZ = Math.min(area.maxZ(), chunkArea.maxZ());
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    chunk.setBlock(x - chunkArea.minX(), y - chunkArea.minY(), z - chunkArea.minZ(), block);
                 }
             }
         }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.placement;
+
+import org.terasology.math.geom.Vector3f;
+import org.terasology.reflection.MappedContainer;
+
+/**
+ * A single entity placed by world generation, as declared in an {@link EntityPlacementsComponent}.
+ */
+@MappedContainer
+public class EntityPlacement {
+    /**
+     * The uri of the prefab to instantiate.
+     */
+    public String prefab;
+
+    /**
+     * The world position of the entity.
+     */
+    public Vector3f position = new Vector3f();
+}
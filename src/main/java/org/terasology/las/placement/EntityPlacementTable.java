@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.placement;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.Assets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The entity placements of an {@link EntityPlacementsComponent}, with their prefabs resolved and bucketed by the
+ * chunk that contains them. The table is immutable once compiled and can be queried from several world
+ * generation threads.
+ */
+public class EntityPlacementTable {
+    private static final Logger logger = LoggerFactory.getLogger(EntityPlacementTable.class);
+
+    private final Map<Vector3i, List<Entry>> entriesByChunk;
+
+    private EntityPlacementTable(Map<Vector3i, List<Entry>> entriesByChunk) {
+        this.entriesByChunk = entriesByChunk;
+    }
+
+    /**
+     * Compiles the placements declared by the given prefab. Placements whose prefab cannot be resolved are skipped.
+     *
+     * @param placementsPrefab the uri of a prefab with an {@link EntityPlacementsComponent}
+     * @return the compiled table, empty if the prefab or its component is missing
+     */
+    public static EntityPlacementTable compile(String placementsPrefab) {
+        Optional<Prefab> prefab = Assets.getPrefab(placementsPrefab);
+        EntityPlacementsComponent component = prefab.map(p -> p.getComponent(EntityPlacementsComponent.class)).orElse(null);
+        if (component == null) {
+            logger.warn("No entity placements found in {}", placementsPrefab);
+            return new EntityPlacementTable(Collections.emptyMap());
+        }
+
+        Map<Vector3i, List<Entry>> buckets = Maps.newHashMap();
+        for (EntityPlacement placement : component.placements) {
+            Optional<Prefab> placed = Assets.getPrefab(placement.prefab);
+            if (!placed.isPresent()) {
+                logger.warn("Skipping placement of unknown prefab {}", placement.prefab);
+                continue;
+            }
+            Vector3f position = placement.position;
+            Vector3i chunkPos = ChunkMath.calcChunkPos(TeraMath.floorToInt(position.x), TeraMath.floorToInt(position.y),
+                    TeraMath.floorToInt(position.z));
+            buckets.computeIfAbsent(chunkPos, pos -> new ArrayList<>()).add(new Entry(placed.get(), position));
+        }
+
+        Map<Vector3i, List<Entry>> frozen = Maps.newHashMapWithExpectedSize(buckets.size());
+        for (Map.Entry<Vector3i, List<Entry>> entry : buckets.entrySet()) {
+            frozen.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+        }
+        return new EntityPlacementTable(frozen);
+    }
+
+    /**
+     * @param chunkPos the chunk position
+     * @return the placements inside that chunk
+     */
+    public List<Entry> getEntries(Vector3i chunkPos) {
+        List<Entry> entries = entriesByChunk.get(chunkPos);
+        return entries != null ? entries : Collections.emptyList();
+    }
+
+    /**
+     * A placement with its prefab already resolved.
+     */
+    public static final class Entry {
+        private final Prefab prefab;
+        private final Vector3f position;
+
+        Entry(Prefab prefab, Vector3f position) {
+            this.prefab = prefab;
+            this.position = new Vector3f(position);
+        }
+
+        public Prefab getPrefab() {
+            return prefab;
+        }
+
+        /**
+         * @return the world position; callers must not modify it
+         */
+        public Vector3f getPosition() {
+            return position;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.placement;
+
+import com.google.common.collect.Lists;
+import org.terasology.entitySystem.Component;
+
+import java.util.List;
+
+/**
+ * Declares the entities world generation places in the arena, such as NPCs and beacons.
+ * <p>
+ * Only read from its prefab when the {@link EntityPlacementTable} is compiled; it is never added to an entity.
+ */
+public class EntityPlacementsComponent implements Component {
+    public List<EntityPlacement> placements = Lists.newArrayList();
+}
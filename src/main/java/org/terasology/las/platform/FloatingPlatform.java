@@ -24,12 +24,14 @@ public class FloatingPlatform {
     private int baseHeight;
     private Region3i redTeleporterRegion;
     private Region3i blackTeleporterRegion;
+    private FloatingPlatformPlan plan;
 
     public FloatingPlatform(Rect2i area, int baseHeight, Region3i redTeleporterRegion, Region3i blackTeleporterRegion) {
         this.area = area;
         this.redTeleporterRegion = redTeleporterRegion;
         this.blackTeleporterRegion = blackTeleporterRegion;
         this.baseHeight = baseHeight;
+        this.plan = FloatingPlatformPlan.compile(area, baseHeight, redTeleporterRegion, blackTeleporterRegion);
     }
 
     public Rect2i getArea() {
@@ -47,4 +49,11 @@ public class FloatingPlatform {
     public Region3i getBlackTeleporterRegion() {
         return blackTeleporterRegion;
     }
+
+    /**
+     * @return the precompiled per-chunk raster plan of this platform
+     */
+    public FloatingPlatformPlan getPlan() {
+        return plan;
+    }
 }
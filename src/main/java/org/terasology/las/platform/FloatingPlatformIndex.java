@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.las.platform;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Rect2i;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A 2D lookup of floating platforms by chunk column.
+ * <p>
+ * Every platform is registered in the chunk columns its area covers, so a query only inspects the platforms
+ * that actually touch the queried columns, however many platforms exist.
+ */
+public class FloatingPlatformIndex {
+    private final Map<Long, List<FloatingPlatform>> platformsByColumn;
+
+    public FloatingPlatformIndex(Collection<FloatingPlatform> platforms) {
+        Map<Long, List<FloatingPlatform>> buckets = Maps.newHashMap();
+        for (FloatingPlatform platform : platforms) {
+            Rect2i area = platform.getArea();
+            for (int cz = ChunkMath.calcChunkPosZ(area.minY()); cz <= ChunkMath.calcChunkPosZ(area.maxY()); cz++) {
+                for (int cx = ChunkMath.calcChunkPosX(area.minX()); cx <= ChunkMath.calcChunkPosX(area.maxX()); cx++) {
+                    buckets.computeIfAbsent(FloatingPlatformPlan.columnKey(cx, cz), key -> new ArrayList<>()).add(platform);
+                }
+            }
+        }
+
+        Map<Long, List<FloatingPlatform>> frozen = Maps.newHashMapWithExpectedSize(buckets.size());
+        for (Map.Entry<Long, List<FloatingPlatform>> entry : buckets.entrySet()) {
+            frozen.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+        }
+        this.platformsByColumn = frozen;
+    }
+
+    /**
+     * @param chunkX the chunk x position
+     * @param chunkZ the chunk z position
+     * @return the platforms that cover part of that chunk column
+     */
+    public List<FloatingPlatform> getPlatforms(int chunkX, int chunkZ) {
+        List<FloatingPlatform> platforms = platformsByColumn.get(FloatingPlatformPlan.columnKey(chunkX, chunkZ));
+        return platforms != null ? platforms : Collections.emptyList();
+    }
+}
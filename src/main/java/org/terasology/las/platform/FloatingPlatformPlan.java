@@ -0,0 +1,253 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.las.platform;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The geometry of a {@link FloatingPlatform}, compiled once into per-chunk-column slices.
+ * <p>
+ * Each slice lists the floor cells, wall columns and teleporter cells that fall into one chunk column,
+ * in world coordinates and with their block type already decided, so rasterizing a chunk only replays
+ * its own slice. Plans are immutable and can be shared between world generation threads.
+ */
+public final class FloatingPlatformPlan {
+    public static final int WALL_HEIGHT = 5;
+
+    public static final byte FLOOR_PLANK = 0;
+    public static final byte FLOOR_GLASS = 1;
+
+    public static final byte WALL_STONE = 0;
+    public static final byte WALL_GLASS = 1;
+
+    public static final byte TELEPORTER_RED = 0;
+    public static final byte TELEPORTER_BLACK = 1;
+
+    private final int baseHeight;
+    private final Map<Long, Slice> slices;
+
+    private FloatingPlatformPlan(int baseHeight, Map<Long, Slice> slices) {
+        this.baseHeight = baseHeight;
+        this.slices = slices;
+    }
+
+    static FloatingPlatformPlan compile(Rect2i area, int baseHeight, Region3i redTeleporterRegion, Region3i blackTeleporterRegion) {
+        Map<Long, SliceBuilder> builders = Maps.newHashMap();
+
+        for (int z = area.minY(); z <= area.maxY(); z++) {
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                int bx = (x / 4) % 3;
+                int bz = (z / 3) % 3;
+                byte type = (bx == 0 || bz == 0) ? FLOOR_PLANK : FLOOR_GLASS;
+                builder(builders, x, z).floor.add(x, 0, z, type);
+            }
+        }
+
+        for (int z = area.minY(); z <= area.maxY(); z++) {
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                boolean outline = x == area.minX() || x == area.maxX() || z == area.minY() || z == area.maxY();
+                if (outline) {
+                    byte type = (x % 14 == 0) && (z % 14 == 0) ? WALL_STONE : WALL_GLASS;
+                    builder(builders, x, z).walls.add(x, 0, z, type);
+                }
+            }
+        }
+
+        addTeleporters(builders, redTeleporterRegion, TELEPORTER_RED);
+        addTeleporters(builders, blackTeleporterRegion, TELEPORTER_BLACK);
+
+        Map<Long, Slice> slices = Maps.newHashMapWithExpectedSize(builders.size());
+        for (Map.Entry<Long, SliceBuilder> entry : builders.entrySet()) {
+            slices.put(entry.getKey(), entry.getValue().build());
+        }
+        return new FloatingPlatformPlan(baseHeight, slices);
+    }
+
+    private static void addTeleporters(Map<Long, SliceBuilder> builders, Region3i region, byte team) {
+        for (Vector3i pos : region) {
+            builder(builders, pos.x, pos.z).teleporters.add(pos.x, pos.y, pos.z, team);
+        }
+    }
+
+    private static SliceBuilder builder(Map<Long, SliceBuilder> builders, int x, int z) {
+        return builders.computeIfAbsent(columnKey(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosZ(z)), key -> new SliceBuilder());
+    }
+
+    /**
+     * @return the key of a chunk column, as used by {@link #getSlice(int, int)}
+     */
+    static long columnKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public int getBaseHeight() {
+        return baseHeight;
+    }
+
+    /**
+     * @return a 64-bit FNV-1a hash of every cell of the plan, independent of the order slices are stored in
+     */
+    public long contentHash() {
+        long[] keys = slices.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long hash = mix(0xcbf29ce484222325L, baseHeight);
+        for (long key : keys) {
+            Slice slice = slices.get(key);
+            hash = mix(hash, key);
+            hash = mix(hash, slice.floor);
+            hash = mix(hash, slice.walls);
+            hash = mix(hash, slice.teleporters);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, Cells cells) {
+        hash = mix(hash, cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            hash = mix(hash, cells.x[i]);
+            hash = mix(hash, cells.y[i]);
+            hash = mix(hash, cells.z[i]);
+            hash = mix(hash, cells.type[i]);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * @param chunkX the chunk x position
+     * @param chunkZ the chunk z position
+     * @return the part of the platform in that chunk column, or null if there is none
+     */
+    public Slice getSlice(int chunkX, int chunkZ) {
+        return slices.get(columnKey(chunkX, chunkZ));
+    }
+
+    /**
+     * A set of cells given in world coordinates, each with a block type.
+     * The y coordinate is only meaningful for teleporter cells; floors and walls are placed relative to the base height.
+     */
+    public static final class Cells {
+        private final int[] x;
+        private final int[] y;
+        private final int[] z;
+        private final byte[] type;
+
+        private Cells(int[] x, int[] y, int[] z, byte[] type) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.type = type;
+        }
+
+        public int size() {
+            return type.length;
+        }
+
+        public int x(int i) {
+            return x[i];
+        }
+
+        public int y(int i) {
+            return y[i];
+        }
+
+        public int z(int i) {
+            return z[i];
+        }
+
+        public byte type(int i) {
+            return type[i];
+        }
+    }
+
+    /**
+     * The floor, wall and teleporter cells of one chunk column.
+     */
+    public static final class Slice {
+        private final Cells floor;
+        private final Cells walls;
+        private final Cells teleporters;
+
+        private Slice(Cells floor, Cells walls, Cells teleporters) {
+            this.floor = floor;
+            this.walls = walls;
+            this.teleporters = teleporters;
+        }
+
+        public Cells getFloor() {
+            return floor;
+        }
+
+        public Cells getWalls() {
+            return walls;
+        }
+
+        public Cells getTeleporters() {
+            return teleporters;
+        }
+    }
+
+    private static final class SliceBuilder {
+        private final CellsBuilder floor = new CellsBuilder();
+        private final CellsBuilder walls = new CellsBuilder();
+        private final CellsBuilder teleporters = new CellsBuilder();
+
+        private Slice build() {
+            return new Slice(floor.build(), walls.build(), teleporters.build());
+        }
+    }
+
+    private static final class CellsBuilder {
+        private int[] x = new int[16];
+        private int[] y = new int[16];
+        private int[] z = new int[16];
+        private byte[] type = new byte[16];
+        private int size;
+
+        private void add(int cellX, int cellY, int cellZ, byte cellType) {
+            if (size == type.length) {
+                int capacity = size * 2;
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                z = Arrays.copyOf(z, capacity);
+                type = Arrays.copyOf(type, capacity);
+            }
+            x[size] = cellX;
+            y[size] = cellY;
+            z[size] = cellZ;
+            type[size] = cellType;
+            size++;
+        }
+
+        private Cells build() {
+            return new Cells(Arrays.copyOf(x, size), Arrays.copyOf(y, size), Arrays.copyOf(z, size), Arrays.copyOf(type, size));
+        }
+    }
+}
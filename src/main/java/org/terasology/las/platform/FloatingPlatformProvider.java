@@ -16,7 +16,13 @@
 
 package org.terasology.las.platform;
 
+import com.google.common.collect.ImmutableList;
 import org.terasology.entitySystem.Component;
+import org.terasology.las.profiling.ProfiledStage;
+import org.terasology.las.profiling.StageStats;
+import org.terasology.las.profiling.WorldGenProfiler;
+import org.terasology.ligthandshadow.componentsystem.LASArenas;
+import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.geom.Rect2i;
 import org.terasology.math.geom.Vector3i;
@@ -28,10 +34,9 @@ import org.terasology.world.generation.Produces;
 import org.terasology.world.generator.plugin.RegisterPlugin;
 
 import java.util.Collection;
-import java.util.Collections;
 
 /**
- * Provides {@link FloatingPlatformFacet} instances.
+ * Provides {@link FloatingPlatformFacet} instances, with the platform of every arena listed in {@link LASArenas}.
  */
 @RegisterPlugin
 @Produces(FloatingPlatformFacet.class)
@@ -39,25 +44,56 @@ public class FloatingPlatformProvider implements ConfigurableFacetProvider, Face
     private static final Region3i RED_TELEPORTER_REGION = Region3i.createFromMinMax(new Vector3i(4, 61, 24), new Vector3i(4, 61, 24));
     private static final Region3i BLACK_TELEPORTER_REGION = Region3i.createFromMinMax(new Vector3i(-4, 61, 24), new Vector3i(-4, 61, 24));
 
+    private static final StageStats STATS = WorldGenProfiler.stage(FloatingPlatformProvider.class.getSimpleName());
+
     private Config configuration = new Config();
 
-    private Collection<FloatingPlatform> fixedPlatforms = Collections.singleton(
-            new FloatingPlatform(Rect2i.createFromMinAndMax(-14, -28, 14, 28), 60, RED_TELEPORTER_REGION, BLACK_TELEPORTER_REGION));
+    private Collection<FloatingPlatform> fixedPlatforms = createPlatforms();
+
+    private final FloatingPlatformIndex platformIndex = new FloatingPlatformIndex(fixedPlatforms);
+
+    /**
+     * @return the platforms this provider places
+     */
+    public Collection<FloatingPlatform> getPlatforms() {
+        return fixedPlatforms;
+    }
+
+    private static Collection<FloatingPlatform> createPlatforms() {
+        ImmutableList.Builder<FloatingPlatform> platforms = ImmutableList.builder();
+        for (int arena = 0; arena < LASArenas.MAX_COUNT; arena++) {
+            Vector3i origin = LASArenas.getOrigin(arena);
+            Rect2i area = Rect2i.createFromMinAndMax(-14 + origin.x, -28 + origin.z, 14 + origin.x, 28 + origin.z);
+            platforms.add(new FloatingPlatform(area, 60 + origin.y,
+                    RED_TELEPORTER_REGION.move(origin), BLACK_TELEPORTER_REGION.move(origin)));
+        }
+        return platforms.build();
+    }
 
     @Override
     public void process(GeneratingRegion region) {
+        long profileStart = ProfiledStage.start();
         Border3D border = region.getBorderForFacet(FloatingPlatformFacet.class);
         FloatingPlatformFacet platformFacet = new FloatingPlatformFacet(region.getRegion(), border);
         Rect2i worldRect = platformFacet.getWorldRegion();
 
-        for (FloatingPlatform platform : fixedPlatforms) {
-            if (platform.getArea().overlaps(worldRect)) {
-                // TODO: consider checking height as well
-                platformFacet.add(platform);
+        int minChunkX = ChunkMath.calcChunkPosX(worldRect.minX());
+        int maxChunkX = ChunkMath.calcChunkPosX(worldRect.maxX());
+        int minChunkZ = ChunkMath.calcChunkPosZ(worldRect.minY());
+        int maxChunkZ = ChunkMath.calcChunkPosZ(worldRect.maxY());
+        for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                for (FloatingPlatform platform : platformIndex.getPlatforms(cx, cz)) {
+                    // TODO: consider checking height as well
+                    if (platform.getArea().overlaps(worldRect) && !platformFacet.getPlatforms().contains(platform)) {
+                        platformFacet.add(platform);
+                    }
+                }
             }
         }
 
         region.setRegionFacet(FloatingPlatformFacet.class, platformFacet);
+        ProfiledStage.stop(STATS, profileStart);
     }
 
     @Override
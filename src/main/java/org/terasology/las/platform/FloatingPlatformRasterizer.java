@@ -16,16 +16,9 @@
 
 package org.terasology.las.platform;
 
-import org.terasology.cities.BlockTheme;
-import org.terasology.cities.BlockType;
-import org.terasology.cities.DefaultBlockType;
-import org.terasology.cities.raster.AbstractPen;
-import org.terasology.cities.raster.ChunkRasterTarget;
-import org.terasology.cities.raster.Pen;
-import org.terasology.cities.raster.RasterUtil;
+import org.terasology.las.LaSBlockPalette;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
-import org.terasology.math.geom.Vector3i;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
@@ -35,23 +28,23 @@ import org.terasology.world.generation.WorldRasterizerPlugin;
 import org.terasology.world.generator.plugin.RegisterPlugin;
 
 /**
- *
+ * Rasterizes floating platforms by replaying the slice of their {@link FloatingPlatformPlan} that belongs to the chunk.
  */
 @RegisterPlugin
 public class FloatingPlatformRasterizer implements WorldRasterizerPlugin {
 
-    private BlockTheme theme;
-    private static final Block RED_DICE = CoreRegistry.get(BlockManager.class).getBlock("LightAndShadowResources:redDice");
-    private static final Block BLACK_DICE = CoreRegistry.get(BlockManager.class).getBlock("LightAndShadowResources:blackDice");
+    private Block[] floorBlocks;
+    private Block[] wallBlocks;
+    private Block[] teleporterBlocks;
 
     @Override
     public void initialize() {
-        BlockManager blockManager = CoreRegistry.get(BlockManager.class);
-        theme = BlockTheme.builder(blockManager)
-                .register(DefaultBlockType.ROOF_FLAT, "LightAndShadowResources:MagicPlank")
-                .register(DefaultBlockType.FENCE, "LightAndShadowResources:MagicGlass")
-                .register(DefaultBlockType.BUILDING_WALL, "LightAndShadowResources:MagicStone")
-                .build();
+        LaSBlockPalette palette = LaSBlockPalette.of(CoreRegistry.get(BlockManager.class));
+
+        // indexed by the type constants of FloatingPlatformPlan
+        floorBlocks = palette.get(LaSBlockPalette.MAGIC_PLANK, LaSBlockPalette.MAGIC_GLASS);
+        wallBlocks = palette.get(LaSBlockPalette.MAGIC_STONE, LaSBlockPalette.MAGIC_GLASS);
+        teleporterBlocks = palette.get(LaSBlockPalette.RED_DICE, LaSBlockPalette.BLACK_DICE);
     }
 
     @Override
@@ -63,59 +56,43 @@ public class FloatingPlatformRasterizer implements WorldRasterizerPlugin {
             return;
         }
 
-        ChunkRasterTarget target = new ChunkRasterTarget(chunk, theme);
-
         Region3i reg = chunkRegion.getRegion();
+        int chunkX = ChunkMath.calcChunkPosX(reg.minX());
+        int chunkZ = ChunkMath.calcChunkPosZ(reg.minZ());
 
-        int wallHeight = 5;
         for (FloatingPlatform platform : platformFacet.getPlatforms()) {
-            int base = platform.getBaseHeight();
-            if (reg.minY() <= base && reg.maxY() >= base) {
-                Pen floorPen = new AbstractPen(target.getAffectedArea()) {
-
-                    @Override
-                    public void draw(int x, int z) {
-                        int bx = (x / 4) % 3;
-                        int bz = (z / 3) % 3;
-                        BlockType type = (bx == 0 || bz == 0) ? DefaultBlockType.ROOF_FLAT : DefaultBlockType.FENCE;
-                        target.setBlock(x, base, z, type);
-                    }
-                };
-                RasterUtil.fillRect(floorPen, platform.getArea());
+            FloatingPlatformPlan plan = platform.getPlan();
+            FloatingPlatformPlan.Slice slice = plan.getSlice(chunkX, chunkZ);
+            if (slice == null) {
+                continue;
             }
 
-            if (reg.minY() <= base + wallHeight && reg.maxY() >= base) {
-
-                Pen wallPen = new AbstractPen(target.getAffectedArea()) {
-                    int bot = Math.max(target.getMinHeight(), base + 1);
-                    int top = Math.min(target.getMaxHeight(), base + wallHeight - 1);  // top layer is exclusive
-
-                    @Override
-                    public void draw(int x, int z) {
-                        BlockType type = (x % 14 == 0) && (z % 14 == 0) ?
-                                DefaultBlockType.BUILDING_WALL : DefaultBlockType.FENCE;
-
-                        for (int y = bot; y <= top; y++) {
-                            target.setBlock(x, y, z, type);
-                        }
-                    }
-                };
-                RasterUtil.drawRect(wallPen, platform.getArea());
+            int base = plan.getBaseHeight();
+            if (reg.minY() <= base && reg.maxY() >= base) {
+                FloatingPlatformPlan.Cells floor = slice.getFloor();
+                for (int i = 0; i < floor.size(); i++) {
+                    chunk.setBlock(floor.x(i) - reg.minX(), base - reg.minY(), floor.z(i) - reg.minZ(), floorBlocks[floor.type(i)]);
+                }
             }
-            Region3i blackTeleporterRegion = platform.getBlackTeleporterRegion();
-            Region3i redTeleporterRegion = platform.getRedTeleporterRegion();
 
-            for (Vector3i blackTeleporterPosition : blackTeleporterRegion) {
-                //set down the teleporter at every square in the designated region
-                if (chunkRegion.getRegion().encompasses(blackTeleporterPosition)) {
-                    chunk.setBlock(ChunkMath.calcBlockPos(blackTeleporterPosition), BLACK_DICE);
+            if (reg.minY() <= base + FloatingPlatformPlan.WALL_HEIGHT && reg.maxY() >= base) {
+                int bot = Math.max(reg.minY(), base + 1);
+                int top = Math.min(reg.maxY(), base + FloatingPlatformPlan.WALL_HEIGHT - 1);  // top layer is exclusive
+                FloatingPlatformPlan.Cells walls = slice.getWalls();
+                for (int i = 0; i < walls.size(); i++) {
+                    Block block = wallBlocks[walls.type(i)];
+                    for (int y = bot; y <= top; y++) {
+                        chunk.setBlock(walls.x(i) - reg.minX(), y - reg.minY(), walls.z(i) - reg.minZ(), block);
+                    }
                 }
             }
 
-            for (Vector3i redTeleporterPosition : redTeleporterRegion) {
-                //set down the teleporter at every square in the designated region
-                if (chunkRegion.getRegion().encompasses(redTeleporterPosition)) {
-                    chunk.setBlock(ChunkMath.calcBlockPos(redTeleporterPosition), RED_DICE);
+            //set down the teleporters at every square in the designated regions
+            FloatingPlatformPlan.Cells teleporters = slice.getTeleporters();
+            for (int i = 0; i < teleporters.size(); i++) {
+                int y = teleporters.y(i);
+                if (y >= reg.minY() && y <= reg.maxY()) {
+                    chunk.setBlock(teleporters.x(i) - reg.minX(), y - reg.minY(), teleporters.z(i) - reg.minZ(), teleporterBlocks[teleporters.type(i)]);
                 }
             }
         }
@@ -16,39 +16,43 @@
 
 package org.terasology.las.platform;
 
-import org.terasology.dialogs.components.DialogComponent;
 import org.terasology.entitySystem.entity.EntityStore;
-import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.las.placement.EntityPlacementTable;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.ChunkMath;
 import org.terasology.math.geom.Vector3f;
-import org.terasology.network.NetworkComponent;
-import org.terasology.utilities.Assets;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.world.generation.EntityBuffer;
 import org.terasology.world.generation.EntityProviderPlugin;
 import org.terasology.world.generation.Region;
 import org.terasology.world.generator.plugin.RegisterPlugin;
 
 /**
- *
+ * Places the world generation entities declared in the {@link #PLACEMENTS_PREFAB} prefab, such as the guidance NPC
+ * and its beacon, in the chunks that contain them.
  */
 @RegisterPlugin
 public class GuidanceNpcProvider implements EntityProviderPlugin {
+    private static final String PLACEMENTS_PREFAB = "LightAndShadow:worldGenPlacements";
+
+    private volatile EntityPlacementTable placements;
 
     @Override
     public void process(Region region, EntityBuffer buffer) {
-        if (region.getRegion().encompasses(0, 64, 24)) {
-
-            Prefab chooseFactionNpc = Assets.getPrefab("LightAndShadow:MagicFool").get();
-            EntityStore entity = new EntityStore(chooseFactionNpc);
-            entity.addComponent(new LocationComponent(new Vector3f(0, 61, 24)));
+        Vector3i chunkPos = ChunkMath.calcChunkPos(region.getRegion().min());
+        for (EntityPlacementTable.Entry placement : getPlacements().getEntries(chunkPos)) {
+            EntityStore entity = new EntityStore(placement.getPrefab());
+            entity.addComponent(new LocationComponent(new Vector3f(placement.getPosition())));
             buffer.enqueue(entity);
-
-            Prefab beaconMark = Assets.getPrefab("BeaconMark").get();
-            EntityStore entityStore = new EntityStore(beaconMark);
-            entityStore.addComponent(new LocationComponent(new Vector3f(0, 63, 24)));
-            buffer.enqueue(entityStore);
         }
-
     }
 
+    private EntityPlacementTable getPlacements() {
+        EntityPlacementTable table = placements;
+        if (table == null) {
+            table = EntityPlacementTable.compile(PLACEMENTS_PREFAB);
+            placements = table;
+        }
+        return table;
+    }
 }
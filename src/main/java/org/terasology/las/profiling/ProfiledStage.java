@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.profiling;
+
+/**
+ * Times a block of code against a {@link StageStats}, for stages that cannot be wrapped from the outside,
+ * such as facet providers whose annotations the world builder reads from their own class.
+ * <pre>
+ * long token = ProfiledStage.start();
+ * ...
+ * ProfiledStage.stop(STATS, token);
+ * </pre>
+ */
+public final class ProfiledStage {
+    private static final ThreadLocal<long[]> ALLOCATION_START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private ProfiledStage() {
+    }
+
+    /**
+     * @return the start time, or 0 if profiling is disabled
+     */
+    public static long start() {
+        if (!WorldGenProfiler.isEnabled()) {
+            return 0;
+        }
+        ALLOCATION_START.get()[0] = WorldGenProfiler.allocatedBytes();
+        return System.nanoTime();
+    }
+
+    public static void stop(StageStats stats, long start) {
+        if (start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = ALLOCATION_START.get()[0];
+        stats.record(nanos, bytes < 0 ? -1 : WorldGenProfiler.allocatedBytes() - bytes);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.profiling;
+
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.generation.Region;
+import org.terasology.world.generation.WorldRasterizer;
+
+/**
+ * Records the latency and allocations of another rasterizer's {@code generateChunk}.
+ * <p>
+ * Facets are computed lazily when a rasterizer first asks for them, so the recorded time includes the facet
+ * providers that this rasterizer is the first to need.
+ */
+class ProfiledWorldRasterizer implements WorldRasterizer {
+    private final WorldRasterizer delegate;
+    private final StageStats stats;
+
+    ProfiledWorldRasterizer(WorldRasterizer delegate, StageStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public void initialize() {
+        delegate.initialize();
+    }
+
+    @Override
+    public void generateChunk(CoreChunk chunk, Region chunkRegion) {
+        if (!WorldGenProfiler.isEnabled()) {
+            delegate.generateChunk(chunk, chunkRegion);
+            return;
+        }
+        long bytes = WorldGenProfiler.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            delegate.generateChunk(chunk, chunkRegion);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            stats.record(nanos, bytes < 0 ? -1 : WorldGenProfiler.allocatedBytes() - bytes);
+        }
+    }
+}
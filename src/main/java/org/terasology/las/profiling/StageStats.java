@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and allocation statistics of one world generation stage.
+ * <p>
+ * Latencies are kept in a histogram with one bucket per power of two nanoseconds, which is enough to tell
+ * a 50 µs stage from a 5 ms one. Recording is lock-free and may happen from any chunk generation thread.
+ */
+public class StageStats {
+    private static final int BUCKETS = 64;
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    StageStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param nanos the duration of one invocation
+     * @param bytes the bytes allocated by the invocation, or a negative value if unknown
+     */
+    public void record(long nanos, long bytes) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (bytes > 0) {
+            allocatedBytes.add(bytes);
+        }
+        histogram.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(Math.max(nanos, 1)));
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * @param fraction the quantile, between 0 and 1
+     * @return the upper bound of the histogram bucket holding that quantile, in nanoseconds
+     */
+    public long getQuantileNanos(double fraction) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = histogram.get(i);
+            total += snapshot[i];
+        }
+        long threshold = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= threshold && seen > 0) {
+                return i >= 62 ? Long.MAX_VALUE : (2L << i) - 1;
+            }
+        }
+        return 0;
+    }
+
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        allocatedBytes.reset();
+        maxNanos.set(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram.set(i, 0);
+        }
+    }
+}
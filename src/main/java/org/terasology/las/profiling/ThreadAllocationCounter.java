@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.LongSupplier;
+
+/**
+ * Reads the allocation counter of the current thread from the JVM's management beans.
+ * <p>
+ * All references to {@code java.lang.management} and {@code com.sun.management} are kept in this class, so that a
+ * module sandbox which refuses them only fails here, when {@link WorldGenProfiler} first loads it.
+ */
+final class ThreadAllocationCounter implements LongSupplier {
+    private final com.sun.management.ThreadMXBean bean;
+
+    private ThreadAllocationCounter(com.sun.management.ThreadMXBean bean) {
+        this.bean = bean;
+    }
+
+    /**
+     * @return a counter, or null if the JVM does not count allocations per thread
+     */
+    static ThreadAllocationCounter create() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+                return new ThreadAllocationCounter(sunBean);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long getAsLong() {
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.profiling;
+
+import com.google.common.collect.Maps;
+import org.terasology.world.generation.WorldRasterizer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Optional timing and allocation instrumentation of the LaS world generation stages.
+ * <p>
+ * World generators and their rasterizers are not component systems, so the collected statistics live here
+ * statically and are shared by all generator instances. Recording is off by default and costs a single volatile
+ * read per stage when disabled; see {@link WorldGenProfilerSystem} for the console command and the periodic dump.
+ */
+public final class WorldGenProfiler {
+    private static final ConcurrentMap<String, StageStats> STAGES = Maps.newConcurrentMap();
+    private static final LongSupplier ALLOCATIONS = createAllocationCounter();
+
+    private static volatile boolean enabled;
+
+    private WorldGenProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * @param name the stage name, usually the simple class name of the provider or rasterizer
+     * @return the statistics of that stage, created on first use
+     */
+    public static StageStats stage(String name) {
+        return STAGES.computeIfAbsent(name, StageStats::new);
+    }
+
+    /**
+     * Wraps a rasterizer so that its {@code generateChunk} calls are recorded while profiling is enabled.
+     */
+    public static WorldRasterizer wrap(WorldRasterizer rasterizer) {
+        return new ProfiledWorldRasterizer(rasterizer, stage(rasterizer.getClass().getSimpleName()));
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread, or a negative value if not supported
+     */
+    static long allocatedBytes() {
+        return ALLOCATIONS.getAsLong();
+    }
+
+    public static void reset() {
+        for (StageStats stats : STAGES.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * @return a table of all stages, slowest total first
+     */
+    public static String report() {
+        List<StageStats> stages = new ArrayList<>(STAGES.values());
+        stages.sort(Comparator.comparingLong(StageStats::getTotalNanos).reversed());
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.ROOT, "%-32s %10s %12s %10s %10s %10s %12s%n",
+                "stage", "calls", "total ms", "p50 us", "p99 us", "max us", "alloc/call"));
+        for (StageStats stats : stages) {
+            long calls = stats.getCount();
+            if (calls == 0) {
+                continue;
+            }
+            builder.append(String.format(Locale.ROOT, "%-32s %10d %12.1f %10d %10d %10d %12d%n",
+                    stats.getName(),
+                    calls,
+                    stats.getTotalNanos() / 1e6,
+                    stats.getQuantileNanos(0.5) / 1000,
+                    stats.getQuantileNanos(0.99) / 1000,
+                    stats.getMaxNanos() / 1000,
+                    stats.getAllocatedBytes() / calls));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The management beans are not on the module API whitelist, so their absence, or the sandbox refusing them, only
+     * turns allocation counting off.
+     */
+    private static LongSupplier createAllocationCounter() {
+        try {
+            LongSupplier counter = ThreadAllocationCounter.create();
+            if (counter != null) {
+                return counter;
+            }
+        } catch (SecurityException | LinkageError e) {
+            // not available in this environment
+        }
+        return () -> -1;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.las.profiling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.ligthandshadow.files.SandboxFiles;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exposes the {@link WorldGenProfiler} through a console command and, while profiling is enabled, dumps its report to
+ * the engine's sandbox directory at a fixed interval. Without a sandbox the report is dumped to the log instead.
+ * Throughput is measured headless by the JMH benchmarks of this module.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class WorldGenProfilerSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final LatencyHistogram UPDATE_LATENCY = LASMetrics.handler("WorldGenProfilerSystem.update");
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldGenProfilerSystem.class);
+
+    private static final String DUMP_FILE = "las-worldgen-profile.txt";
+    private static final float DUMP_INTERVAL = 30f;
+
+    private SandboxFiles files;
+    private float sinceLastDump;
+
+    @Override
+    public void initialise() {
+        files = SandboxFiles.open();
+    }
+
+    @Override
+    public void update(float delta) {
+        LASMetrics.time(UPDATE_LATENCY, () -> {
+            if (!WorldGenProfiler.isEnabled()) {
+                return;
+            }
+            sinceLastDump += delta;
+            if (sinceLastDump >= DUMP_INTERVAL) {
+                sinceLastDump = 0;
+                dump();
+            }
+        });
+    }
+
+    @Command(shortDescription = "Profile LaS world generation",
+            helpText = "on/off enables or disables recording, reset clears it, dump writes it to the sandbox "
+                    + "directory, and no argument prints the current report",
+            runOnServer = true)
+    public String worldGenProfile(@CommandParam(value = "action", required = false) String action) {
+        if (action == null) {
+            return WorldGenProfiler.report();
+        }
+        switch (action) {
+            case "on":
+                WorldGenProfiler.setEnabled(true);
+                return "World generation profiling enabled.";
+            case "off":
+                WorldGenProfiler.setEnabled(false);
+                return "World generation profiling disabled.";
+            case "reset":
+                WorldGenProfiler.reset();
+                return "World generation profile reset.";
+            case "dump":
+                return dump() ? "Wrote " + DUMP_FILE : "Could not write the world generation profile, see the log.";
+            default:
+                return "Unknown action '" + action + "', expected on, off, reset or dump.";
+        }
+    }
+
+    private boolean dump() {
+        String report = WorldGenProfiler.report();
+        if (files == null) {
+            logger.info("World generation profile\n{}", report);
+            return false;
+        }
+        try {
+            files.write(DUMP_FILE, out -> out.write(report.getBytes(StandardCharsets.UTF_8)));
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to write world generation profile to {}", DUMP_FILE, e);
+            return false;
+        }
+    }
+}
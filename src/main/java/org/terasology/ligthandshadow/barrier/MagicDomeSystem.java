@@ -20,11 +20,19 @@ import org.slf4j.LoggerFactory;
 import org.terasology.audio.events.PlaySoundEvent;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.itemRendering.components.AnimateRotationComponent;
+import org.terasology.ligthandshadow.journal.JournalRecord;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.metrics.Counter;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.scheduler.LASScheduler;
+import org.terasology.ligthandshadow.scheduler.ScheduledActionEvent;
 import org.terasology.logic.characters.CharacterImpulseEvent;
 import org.terasology.logic.characters.CharacterMoveInputEvent;
 import org.terasology.logic.console.commandSystem.annotations.Command;
@@ -36,22 +44,41 @@ import org.terasology.utilities.random.FastRandom;
 import org.terasology.world.RelevanceRegionComponent;
 
 @RegisterSystem
-public class MagicDomeSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+public class MagicDomeSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_CHARACTER_MOVEMENT_LATENCY =
+            LASMetrics.handler("MagicDomeSystem.onCharacterMovement");
+    private static final LatencyHistogram ON_DOME_ACTIVATED_LATENCY =
+            LASMetrics.handler("MagicDomeSystem.onDomeActivated");
+    private static final LatencyHistogram ON_DOME_DEACTIVATED_LATENCY =
+            LASMetrics.handler("MagicDomeSystem.onDomeDeactivated");
+    private static final LatencyHistogram ON_DOME_TICK_LATENCY = LASMetrics.handler("MagicDomeSystem.onDomeTick");
+    private static final Counter DOME_BOUNCES =
+            LASMetrics.counter("las_dome_bounces_total", "Players pushed back by the dome barrier.");
 
     private static final Logger logger = LoggerFactory.getLogger(MagicDomeSystem.class);
 
     private static final int WORLD_RADIUS = 500;
 
+    private static final String DOME_TICK = "las:domeTick";
+    private static final long DOME_TICK_MILLIS = 2000;
+
     @In
     private EntityManager entityManager;
 
+    @In
+    private LASScheduler scheduler;
+
+    @In
+    private MatchJournalSystem matchJournal;
+
     private Vector3f lastPos = Vector3f.zero();
     private EntityRef magicDomeEntity = EntityRef.NULL;
-    private float updateDelta;
-    private FastRandom random = new FastRandom();
+    private long seed = new FastRandom().nextLong();
+    private FastRandom random = new FastRandom(seed);
 
     @Override
     public void postBegin() {
+        matchJournal.recordSeed(JournalRecord.SEED_MAGIC_DOME, seed);
         //toggleDome();
     }
 
@@ -84,64 +111,82 @@ public class MagicDomeSystem extends BaseComponentSystem implements UpdateSubscr
 
     @ReceiveEvent(components = {LocationComponent.class})
     public void onCharacterMovement(CharacterMoveInputEvent moveInputEvent, EntityRef player, LocationComponent loc) {
-        Vector3f pos = new Vector3f(loc.getWorldPosition());
+        LASMetrics.time(ON_CHARACTER_MOVEMENT_LATENCY, () -> {
+            Vector3f pos = new Vector3f(loc.getWorldPosition());
 
-        float distance = pos.length();
+            float distance = pos.length();
 
-        float deltaDistance = TeraMath.fastAbs(pos.distance(lastPos));
+            float deltaDistance = TeraMath.fastAbs(pos.distance(lastPos));
 
-        for (EntityRef domeEntity : entityManager.getEntitiesWith(MagicDome.class, LocationComponent.class)) {
-            LocationComponent domeLocationComponent = domeEntity.getComponent(LocationComponent.class);
-            Vector3f domeCenter = domeLocationComponent.getWorldPosition();
-            Vector3f domeVerticalTop = domeCenter.addY(WORLD_RADIUS);
+            for (EntityRef domeEntity : entityManager.getEntitiesWith(MagicDome.class, LocationComponent.class)) {
+                LocationComponent domeLocationComponent = domeEntity.getComponent(LocationComponent.class);
+                Vector3f domeCenter = domeLocationComponent.getWorldPosition();
+                Vector3f domeVerticalTop = domeCenter.addY(WORLD_RADIUS);
 
-            MagicDome dome = domeEntity.getComponent(MagicDome.class);
+                MagicDome dome = domeEntity.getComponent(MagicDome.class);
 
-            if (deltaDistance > 0.2f) {
+                if (deltaDistance > 0.2f) {
 //                logger.info("CharacerMoveInputEvent: position: {} - distance from O: {}, delta: {}", pos, distance, deltaDistance);
 
-                if (lastPos.length() < WORLD_RADIUS && lastPos.length() < pos.length() && distance > WORLD_RADIUS) {
+                    if (lastPos.length() < WORLD_RADIUS && lastPos.length() < pos.length() && distance > WORLD_RADIUS) {
 //                    logger.info("Sending player back inside!");
-                    Vector3f impulse = pos.normalize().invert();
+                        Vector3f impulse = pos.normalize().invert();
 
-                    impulse.set(impulse.scale(64).setY(6));
-                    player.send(new CharacterImpulseEvent(impulse));
+                        impulse.set(impulse.scale(64).setY(6));
+                        player.send(new CharacterImpulseEvent(impulse));
+                        DOME_BOUNCES.increment();
 
-                    player.send(new PlaySoundEvent(magicDomeEntity.getComponent(MagicDome.class).hitSound, 2f));
-                }
+                        player.send(new PlaySoundEvent(magicDomeEntity.getComponent(MagicDome.class).hitSound, 2f));
+                    }
 
-                if (lastPos.length() > WORLD_RADIUS && lastPos.length() > pos.length() && distance < WORLD_RADIUS) {
+                    if (lastPos.length() > WORLD_RADIUS && lastPos.length() > pos.length() && distance < WORLD_RADIUS) {
 //                    logger.info("Sending player back outside");
-                    Vector3f impulse = pos.normalize();
-                    float verticalDiff = TeraMath.sqrt(TeraMath.fastAbs(TeraMath.sqr(lastPos.getY()) - TeraMath.sqr(domeVerticalTop.getY())));
-                    float impulseY = (TeraMath.fastAbs(verticalDiff) / (float) WORLD_RADIUS) * 3f;
+                        Vector3f impulse = pos.normalize();
+                        float verticalDiff = TeraMath.sqrt(TeraMath.fastAbs(TeraMath.sqr(lastPos.getY()) - TeraMath.sqr(domeVerticalTop.getY())));
+                        float impulseY = (TeraMath.fastAbs(verticalDiff) / (float) WORLD_RADIUS) * 3f;
 
-                    impulse.set(impulse.scale(64)).addY(impulseY);
-                    player.send(new CharacterImpulseEvent(impulse));
+                        impulse.set(impulse.scale(64)).addY(impulseY);
+                        player.send(new CharacterImpulseEvent(impulse));
+                        DOME_BOUNCES.increment();
 
-                    player.send(new PlaySoundEvent(magicDomeEntity.getComponent(MagicDome.class).hitSound, 2f));
+                        player.send(new PlaySoundEvent(magicDomeEntity.getComponent(MagicDome.class).hitSound, 2f));
 
+                    }
+                    lastPos.set(pos);
                 }
-                lastPos.set(pos);
             }
-        }
+        });
     }
 
-    @Override
-    public void update(float delta) {
-        updateDelta += delta;
-        if (updateDelta > 2.0f) {
-            for (EntityRef entity : entityManager.getEntitiesWith(MagicDome.class, AnimateRotationComponent.class)) {
-                AnimateRotationComponent rotationComponent = entity.getComponent(AnimateRotationComponent.class);
+    @ReceiveEvent(components = {MagicDome.class})
+    public void onDomeActivated(OnActivatedComponent event, EntityRef entity) {
+        LASMetrics.time(ON_DOME_ACTIVATED_LATENCY, () -> {
+            scheduler.schedule(entity, DOME_TICK, DOME_TICK_MILLIS);
+        });
+    }
+
+    @ReceiveEvent(components = {MagicDome.class})
+    public void onDomeDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        LASMetrics.time(ON_DOME_DEACTIVATED_LATENCY, () -> {
+            scheduler.cancel(entity, DOME_TICK);
+        });
+    }
 
+    @ReceiveEvent(components = {MagicDome.class})
+    public void onDomeTick(ScheduledActionEvent event, EntityRef entity) {
+        LASMetrics.time(ON_DOME_TICK_LATENCY, () -> {
+            if (!event.getActionId().equals(DOME_TICK)) {
+                return;
+            }
+            AnimateRotationComponent rotationComponent = entity.getComponent(AnimateRotationComponent.class);
+            if (rotationComponent != null) {
                 rotationComponent.yawSpeed = TeraMath.clamp(rotationComponent.yawSpeed + random.nextFloat(-0.01f, 0.01f), -0.01f, 0.01f);
                 rotationComponent.pitchSpeed = TeraMath.clamp(rotationComponent.pitchSpeed + random.nextFloat(-0.01f, 0.01f), -0.01f, 0.01f);
                 rotationComponent.rollSpeed = TeraMath.clamp(rotationComponent.rollSpeed + random.nextFloat(-0.01f, 0.01f), -0.01f, 0.01f);
 
                 entity.saveComponent(rotationComponent);
             }
-
-            updateDelta = 0;
-        }
+            scheduler.schedule(entity, DOME_TICK, DOME_TICK_MILLIS);
+        });
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 MovingBlocks
+ * Copyright 2019 MovingBlocks
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,21 +13,17 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.terasology.ligthandshadow.componentsystem.events;
+package org.terasology.ligthandshadow.componentsystem;
 
-import org.terasology.entitySystem.event.Event;
-import org.terasology.network.BroadcastEvent;
-
-@BroadcastEvent
-public class ScoreUpdateFromServerEvent implements Event {
-    public String team;
-    public int score;
-
-    public ScoreUpdateFromServerEvent() {
-    }
+/**
+ * A world generator that builds LaS arenas at the origins given by {@link LASArenas}.
+ * <p>
+ * Worlds of other generators only have the default arena.
+ */
+public interface ArenaWorldGenerator {
 
-    public ScoreUpdateFromServerEvent(String team, int score) {
-        this.team = team;
-        this.score = score;
-    }
+    /**
+     * @return the number of arenas the generator builds, with ids 0 to count - 1
+     */
+    int getArenaCount();
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.componentsystem;
+
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * Where the LaS arenas of a world are.
+ * <p>
+ * Arena 0 is the default arena around the world origin. Every other arena is an exact copy of it, moved along z by
+ * {@value #SPACING} blocks per arena id, so that one server can host several small matches side by side. Which of
+ * them a world actually contains is up to its generator, see {@link ArenaWorldGenerator}.
+ */
+public final class LASArenas {
+    /**
+     * The number of arenas a LaS world generator builds at most.
+     */
+    public static final int MAX_COUNT = 4;
+    /**
+     * The distance between neighbouring arenas along z, a multiple of the chunk size.
+     */
+    public static final int SPACING = 128;
+    /**
+     * Where players of an arena enter it, relative to its origin: above the floating platform with the teleporters.
+     */
+    public static final Vector3f SPAWN_POSITION = new Vector3f(0, 65, 0);
+
+    private LASArenas() {
+    }
+
+    /**
+     * @return the offset of an arena from the default arena
+     */
+    public static Vector3i getOrigin(int arena) {
+        return new Vector3i(0, 0, arena * SPACING);
+    }
+}
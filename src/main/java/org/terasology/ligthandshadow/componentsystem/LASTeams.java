@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem;
+
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * Registry of the LaS teams.
+ * <p>
+ * Each team has a small integer id that indexes the per-team data, so handlers can resolve the team of a
+ * {@link org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent} once with {@link #getId(String)}
+ * and branch on ints afterwards. Teams that play without a base and flag, like white, have null entries there.
+ * Returned vectors are shared and must not be modified.
+ */
+public final class LASTeams {
+    public static final int NONE = -1;
+    public static final int RED = 0;
+    public static final int BLACK = 1;
+    public static final int WHITE = 2;
+    public static final int COUNT = 3;
+
+    private static final String[] NAMES = {LASUtils.RED_TEAM, LASUtils.BLACK_TEAM, LASUtils.WHITE_TEAM};
+    private static final int[] OPPOSITION = {BLACK, RED, NONE};
+    private static final String[] FLAG_URIS = {LASUtils.RED_FLAG_URI, LASUtils.BLACK_FLAG_URI, null};
+    private static final Vector3i[] FLAG_LOCATIONS = {
+        flagLocation(LASUtils.CENTER_RED_BASE_POSITION), flagLocation(LASUtils.CENTER_BLACK_BASE_POSITION), null};
+    private static final String[] FLAG_PARTICLES = {LASUtils.HEARTS_PARTICLE, LASUtils.SPADES_PARTICLE, null};
+    private static final Vector3f[] TELEPORT_DESTINATIONS = {
+        LASUtils.RED_TELEPORT_DESTINATION, LASUtils.BLACK_TELEPORT_DESTINATION, null};
+    private static final String[] PLAYER_SKINS = {LASUtils.RED_PAWN_SKIN, LASUtils.BLACK_PAWN_SKIN, LASUtils.WHITE_PAWN_SKIN};
+    private static final String[] HEALTH_ICONS = {LASUtils.RED_HEALTH_ICON, LASUtils.BLACK_HEALTH_ICON, LASUtils.WHITE_HEALTH_ICON};
+    private static final String[] HEALTH_SKINS = {LASUtils.RED_HEALTH_SKIN, LASUtils.BLACK_HEALTH_SKIN, LASUtils.WHITE_HEALTH_SKIN};
+
+    private LASTeams() {
+    }
+
+    /**
+     * @param team a team name as stored in LASTeamComponent, may be null
+     * @return the id of that team, or {@link #NONE} if it is not a known team
+     */
+    public static int getId(String team) {
+        if (team == null) {
+            return NONE;
+        }
+        switch (team) {
+            case LASUtils.RED_TEAM:
+                return RED;
+            case LASUtils.BLACK_TEAM:
+                return BLACK;
+            case LASUtils.WHITE_TEAM:
+                return WHITE;
+            default:
+                return NONE;
+        }
+    }
+
+    /**
+     * @return true if the id belongs to a team
+     */
+    public static boolean isTeam(int id) {
+        return id >= 0 && id < COUNT;
+    }
+
+    public static String getName(int id) {
+        return isTeam(id) ? NAMES[id] : null;
+    }
+
+    /**
+     * @return the id of the team playing against this one, or {@link #NONE}
+     */
+    public static int getOpposition(int id) {
+        return isTeam(id) ? OPPOSITION[id] : NONE;
+    }
+
+    public static String getFlagURI(int id) {
+        return isTeam(id) ? FLAG_URIS[id] : null;
+    }
+
+    public static Vector3i getFlagLocation(int id) {
+        return isTeam(id) ? FLAG_LOCATIONS[id] : null;
+    }
+
+    public static String getFlagParticle(int id) {
+        return isTeam(id) ? FLAG_PARTICLES[id] : null;
+    }
+
+    public static Vector3f getTeleportDestination(int id) {
+        return isTeam(id) ? TELEPORT_DESTINATIONS[id] : null;
+    }
+
+    public static String getPlayerSkin(int id) {
+        return isTeam(id) ? PLAYER_SKINS[id] : null;
+    }
+
+    public static String getHealthIcon(int id) {
+        return isTeam(id) ? HEALTH_ICONS[id] : null;
+    }
+
+    public static String getHealthSkin(int id) {
+        return isTeam(id) ? HEALTH_SKINS[id] : null;
+    }
+
+    private static Vector3i flagLocation(Vector3i baseCenter) {
+        return new Vector3i(baseCenter.x, baseCenter.y + 1, baseCenter.z);
+    }
+}
@@ -15,6 +15,11 @@
  */
 package org.terasology.ligthandshadow.componentsystem;
 
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.ligthandshadow.componentsystem.components.BlackFlagComponent;
+import org.terasology.ligthandshadow.componentsystem.components.HasFlagComponent;
+import org.terasology.ligthandshadow.componentsystem.components.RedFlagComponent;
+import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 
@@ -54,6 +59,12 @@ public final class LASUtils {
     // The position near the team's base that player will be teleported to on choosing a team
     public static final Vector3f RED_TELEPORT_DESTINATION = new Vector3f(29, 12, 0);
     public static final Vector3f BLACK_TELEPORT_DESTINATION = new Vector3f(-29, 12, 0);
+    // Spawn pads around each teleport destination, so that players spawning together do not overlap
+    public static final Vector3f[] SPAWN_PAD_OFFSETS = {
+        new Vector3f(0, 0, 0), new Vector3f(1.5f, 0, 0), new Vector3f(-1.5f, 0, 0),
+        new Vector3f(0, 0, 1.5f), new Vector3f(0, 0, -1.5f), new Vector3f(1.5f, 0, 1.5f),
+        new Vector3f(-1.5f, 0, -1.5f), new Vector3f(1.5f, 0, -1.5f), new Vector3f(-1.5f, 0, 1.5f)
+    };
     public static final String MAGIC_STAFF_URI = "LightAndShadowResources:magicStaff";
 
     public static final String DEATH_SCREEN = "engine:DeathScreen";
@@ -67,91 +78,64 @@ public final class LASUtils {
     }
 
     public static Vector3i getFlagLocation(String flagTeam) {
-        if (flagTeam.equals(RED_TEAM)) {
-            return (new Vector3i(CENTER_RED_BASE_POSITION.x, CENTER_RED_BASE_POSITION.y + 1, CENTER_RED_BASE_POSITION.z));
-        }
-        if (flagTeam.equals(BLACK_TEAM)) {
-            return (new Vector3i(CENTER_BLACK_BASE_POSITION.x, CENTER_BLACK_BASE_POSITION.y + 1, CENTER_BLACK_BASE_POSITION.z));
-        }
-        return null;
+        Vector3i location = LASTeams.getFlagLocation(LASTeams.getId(flagTeam));
+        return location != null ? new Vector3i(location) : null;
     }
 
     public static String getFlagURI(String flagTeam) {
-        if (flagTeam.equals(RED_TEAM)) {
-            return RED_FLAG_URI;
-        }
-        if (flagTeam.equals(BLACK_TEAM)) {
-            return BLACK_FLAG_URI;
-        }
-        return null;
+        return LASTeams.getFlagURI(LASTeams.getId(flagTeam));
     }
 
     public static String getFlagParticle(String flagTeam) {
-        if (flagTeam.equals(RED_TEAM)) {
-            return HEARTS_PARTICLE;
-        }
-        if (flagTeam.equals(BLACK_TEAM)) {
-            return SPADES_PARTICLE;
-        }
-        return null;
+        return LASTeams.getFlagParticle(LASTeams.getId(flagTeam));
     }
 
     public static Vector3f getTeleportDestination(String team) {
-        if (team.equals(RED_TEAM)) {
-            return RED_TELEPORT_DESTINATION;
-        }
-        if (team.equals(BLACK_TEAM)) {
-            return BLACK_TELEPORT_DESTINATION;
-        }
-        return null;
+        return LASTeams.getTeleportDestination(LASTeams.getId(team));
     }
 
     public static String getHealthIcon(String team) {
-        if (team.equals(RED_TEAM)) {
-            return RED_HEALTH_ICON;
-        }
-        if (team.equals(BLACK_TEAM)) {
-            return BLACK_HEALTH_ICON;
-        }
-        if (team.equals(WHITE_TEAM)) {
-            return WHITE_HEALTH_ICON;
-        }
-        return null;
+        return LASTeams.getHealthIcon(LASTeams.getId(team));
     }
 
     public static String getHealthSkin(String team) {
-        if (team.equals(RED_TEAM)) {
-            return RED_HEALTH_SKIN;
-        }
-        if (team.equals(BLACK_TEAM)) {
-            return BLACK_HEALTH_SKIN;
-        }
-        if (team.equals(WHITE_TEAM)) {
-            return WHITE_HEALTH_SKIN;
-        }
-        return null;
+        return LASTeams.getHealthSkin(LASTeams.getId(team));
     }
 
     public static String getPlayerSkin(String team) {
-        if (team.equals(RED_TEAM)) {
-            return RED_PAWN_SKIN;
-        }
-        if (team.equals(BLACK_TEAM)) {
-            return BLACK_PAWN_SKIN;
-        }
-        if (team.equals(WHITE_TEAM)) {
-            return WHITE_PAWN_SKIN;
-        }
-        return  null;
+        return LASTeams.getPlayerSkin(LASTeams.getId(team));
+    }
+
+    /**
+     * Looks up the flag a player carries through the index in their {@link HasFlagComponent}.
+     * If the indexed slot no longer holds the flag, for example after loading an older save, the inventory is
+     * searched once and the index is repaired.
+     *
+     * @return the held flag item, or {@link EntityRef#NULL} if the player carries none
+     */
+    public static EntityRef getHeldFlag(EntityRef player, InventoryManager inventoryManager) {
+        HasFlagComponent hasFlag = player.getComponent(HasFlagComponent.class);
+        if (hasFlag == null) {
+            return EntityRef.NULL;
+        }
+        if (hasFlag.slot >= 0 && hasFlag.flagItem.exists()
+                && inventoryManager.getItemInSlot(player, hasFlag.slot).equals(hasFlag.flagItem)) {
+            return hasFlag.flagItem;
+        }
+        int inventorySize = inventoryManager.getNumSlots(player);
+        for (int slotNumber = 0; slotNumber < inventorySize; slotNumber++) {
+            EntityRef item = inventoryManager.getItemInSlot(player, slotNumber);
+            if (item.hasComponent(BlackFlagComponent.class) || item.hasComponent(RedFlagComponent.class)) {
+                hasFlag.flagItem = item;
+                hasFlag.slot = slotNumber;
+                player.saveComponent(hasFlag);
+                return item;
+            }
+        }
+        return EntityRef.NULL;
     }
 
     public static String getOppositionTeam(String team) {
-        if (team.equals(RED_TEAM)) {
-            return BLACK_TEAM;
-        }
-        if (team.equals(BLACK_TEAM)) {
-            return RED_TEAM;
-        }
-        return null;
+        return LASTeams.getName(LASTeams.getOpposition(LASTeams.getId(team)));
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.componentsystem;
+
+import com.google.common.collect.Lists;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.ligthandshadow.componentsystem.events.LoadoutResetEvent;
+import org.terasology.logic.characters.CharacterHeldItemComponent;
+import org.terasology.logic.inventory.InventoryComponent;
+import org.terasology.logic.inventory.SelectedInventorySlotComponent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replaces the whole inventory of an entity in one step.
+ * <p>
+ * The slots are rewritten and the inventory is saved once. Instead of an InventorySlotChangedEvent per slot, the
+ * owner receives a single {@link LoadoutResetEvent} listing the removed items, which are then destroyed. Since no
+ * slot change events are sent, the held item of the owner is set to the item in its selected slot here. Must only be
+ * used on the authority.
+ */
+public final class Loadouts {
+    private Loadouts() {
+    }
+
+    /**
+     * Empties every slot of the inventory.
+     */
+    public static void clear(EntityRef owner) {
+        reset(owner, Collections.emptyList());
+    }
+
+    /**
+     * Puts the given items into the first slots of the inventory and empties the others. Items that do not fit are
+     * destroyed.
+     */
+    public static void reset(EntityRef owner, List<EntityRef> loadout) {
+        InventoryComponent inventory = owner.getComponent(InventoryComponent.class);
+        if (inventory == null) {
+            return;
+        }
+        List<EntityRef> slots = inventory.itemSlots;
+        List<EntityRef> removedItems = Lists.newArrayList();
+        for (int slot = 0; slot < slots.size(); slot++) {
+            EntityRef oldItem = slots.get(slot);
+            EntityRef newItem = slot < loadout.size() ? loadout.get(slot) : EntityRef.NULL;
+            if (oldItem.exists() && !oldItem.equals(newItem)) {
+                removedItems.add(oldItem);
+            }
+            if (newItem.exists()) {
+                newItem.setOwner(owner);
+            }
+            slots.set(slot, newItem);
+        }
+        for (int i = slots.size(); i < loadout.size(); i++) {
+            loadout.get(i).destroy();
+        }
+        owner.saveComponent(inventory);
+        resyncHeldItem(owner, slots);
+        if (!removedItems.isEmpty()) {
+            owner.send(new LoadoutResetEvent(removedItems));
+            for (EntityRef item : removedItems) {
+                item.destroy();
+            }
+        }
+    }
+
+    /**
+     * Points the held item at the selected slot again, moving the selection back into the inventory if it no longer
+     * fits.
+     */
+    private static void resyncHeldItem(EntityRef owner, List<EntityRef> slots) {
+        SelectedInventorySlotComponent selected = owner.getComponent(SelectedInventorySlotComponent.class);
+        if (selected != null && selected.slot >= slots.size()) {
+            selected.slot = 0;
+            owner.saveComponent(selected);
+        }
+        CharacterHeldItemComponent heldItem = owner.getComponent(CharacterHeldItemComponent.class);
+        if (heldItem == null) {
+            return;
+        }
+        int slot = selected != null ? selected.slot : 0;
+        EntityRef item = slot < slots.size() ? slots.get(slot) : EntityRef.NULL;
+        if (!item.equals(heldItem.selectedItem)) {
+            heldItem.selectedItem = item;
+            owner.saveComponent(heldItem);
+        }
+    }
+}
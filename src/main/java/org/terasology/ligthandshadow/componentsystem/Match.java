@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem;
+
+import com.google.common.collect.Sets;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The state of one match: its arena, the scores of the teams, where their flags and spawn points are, and the clients
+ * playing in it.
+ * <p>
+ * An arena is a copy of the default LaS arena moved by its origin, so base, flag and teleport positions are those of
+ * {@link LASTeams} offset by the origin. Returned vectors are shared and must not be modified. Players are spread over
+ * the spawn pads around each teleport destination with a {@link SpawnPadAllocator}.
+ */
+public class Match {
+    private final int arena;
+    private final Vector3i origin;
+    private final int[] scores = new int[LASTeams.COUNT];
+    private final Vector3i[] flagLocations = new Vector3i[LASTeams.COUNT];
+    private final Vector3f[] teleportDestinations = new Vector3f[LASTeams.COUNT];
+    private final SpawnPadAllocator[] spawnPads = new SpawnPadAllocator[LASTeams.COUNT];
+    private final Vector3f spawnPosition;
+    private final Set<EntityRef> clients = Sets.newLinkedHashSet();
+
+    public Match(int arena, Vector3i origin) {
+        this(arena, origin, LASUtils.SPAWN_PAD_OFFSETS);
+    }
+
+    /**
+     * @param spawnPadOffsets the spawn pads of every base, relative to its teleport destination
+     */
+    public Match(int arena, Vector3i origin, Vector3f[] spawnPadOffsets) {
+        this.arena = arena;
+        this.origin = new Vector3i(origin);
+        this.spawnPosition = new Vector3f(LASArenas.SPAWN_POSITION).add(origin.x, origin.y, origin.z);
+        for (int team = 0; team < LASTeams.COUNT; team++) {
+            Vector3i flagLocation = LASTeams.getFlagLocation(team);
+            if (flagLocation != null) {
+                flagLocations[team] = new Vector3i(flagLocation).add(origin);
+            }
+            Vector3f destination = LASTeams.getTeleportDestination(team);
+            if (destination != null) {
+                teleportDestinations[team] = new Vector3f(destination).add(origin.x, origin.y, origin.z);
+                spawnPads[team] = new SpawnPadAllocator(teleportDestinations[team], spawnPadOffsets);
+            }
+        }
+    }
+
+    public int getArena() {
+        return arena;
+    }
+
+    public Vector3i getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return where players entering the arena are placed, before they pick a team
+     */
+    public Vector3f getSpawnPosition() {
+        return spawnPosition;
+    }
+
+    /**
+     * @return the clients whose characters play in this match, kept up to date by the MatchManager
+     */
+    public Collection<EntityRef> getClients() {
+        return Collections.unmodifiableSet(clients);
+    }
+
+    public void addClient(EntityRef client) {
+        clients.add(client);
+    }
+
+    public void removeClient(EntityRef client) {
+        clients.remove(client);
+    }
+
+    public int getScore(int team) {
+        return LASTeams.isTeam(team) ? scores[team] : 0;
+    }
+
+    /**
+     * @return the new score of the team
+     */
+    public int incrementScore(int team) {
+        return ++scores[team];
+    }
+
+    public void resetScores() {
+        Arrays.fill(scores, 0);
+    }
+
+    public Vector3i getFlagLocation(int team) {
+        return LASTeams.isTeam(team) ? flagLocations[team] : null;
+    }
+
+    /**
+     * @param position a block position in world coordinates
+     * @return true if the position is part of the base stone or flag of one of this match's bases
+     */
+    public boolean isBaseBlock(Vector3i position) {
+        for (Vector3i flagLocation : flagLocations) {
+            if (flagLocation != null
+                    && Math.abs(position.x - flagLocation.x) <= LASUtils.BASE_EXTENT
+                    && Math.abs(position.z - flagLocation.z) <= LASUtils.BASE_EXTENT
+                    && position.y >= flagLocation.y - 1 && position.y <= flagLocation.y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Vector3f getTeleportDestination(int team) {
+        return LASTeams.isTeam(team) ? teleportDestinations[team] : null;
+    }
+
+    /**
+     * Picks a free spawn pad of a team's base for a player to be sent to.
+     *
+     * @param now the current game time in ms
+     * @param result set to the spawn position
+     * @return false if the team has no base, in which case result is unchanged
+     */
+    public boolean allocateSpawnPoint(int team, long now, Vector3f result) {
+        SpawnPadAllocator allocator = LASTeams.isTeam(team) ? spawnPads[team] : null;
+        if (allocator == null) {
+            return false;
+        }
+        allocator.allocate(now, result);
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem;
+
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.RelevanceRegionComponent;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.chunks.ChunkConstants;
+
+/**
+ * Keeps the chunks around a point loaded without a player being there, so that players teleported to it later do not
+ * wait for world generation.
+ * <p>
+ * Like any relevance region, an anchor with a chunk distance {@code d} keeps {@code d / 2} chunks loaded in each
+ * direction around the chunk holding its position.
+ */
+public final class RelevanceAnchors {
+    /** The size of the region kept loaded around a base, in chunks. */
+    public static final Vector3i BASE_DISTANCE = new Vector3i(2, 1, 2);
+
+    private RelevanceAnchors() {
+    }
+
+    /**
+     * Creates a non-persistent entity with a relevance region around a position. Destroy it to release the chunks.
+     *
+     * @param chunkDistance the size of the region in chunks
+     */
+    public static EntityRef create(EntityManager entityManager, Vector3f position, Vector3i chunkDistance) {
+        EntityBuilder builder = entityManager.newBuilder();
+        builder.setPersistent(false);
+        builder.addComponent(new LocationComponent(position));
+        RelevanceRegionComponent relevanceRegion = new RelevanceRegionComponent();
+        relevanceRegion.distance = new Vector3i(chunkDistance);
+        builder.addComponent(relevanceRegion);
+        return builder.build();
+    }
+
+    /**
+     * Checks every chunk of the region an anchor keeps loaded, not just the one holding the position, since the
+     * chunks around it load in no particular order.
+     *
+     * @param chunkDistance the size of the region in chunks, as given to {@link #create}
+     * @return whether all chunks of the region anchored at the position are loaded
+     */
+    public static boolean isReady(WorldProvider worldProvider, Vector3f position, Vector3i chunkDistance) {
+        int extentX = chunkDistance.x / 2;
+        int extentY = chunkDistance.y / 2;
+        int extentZ = chunkDistance.z / 2;
+        Vector3f probe = new Vector3f();
+        for (int x = -extentX; x <= extentX; x++) {
+            for (int y = -extentY; y <= extentY; y++) {
+                for (int z = -extentZ; z <= extentZ; z++) {
+                    probe.set(position.x + x * ChunkConstants.SIZE_X, position.y + y * ChunkConstants.SIZE_Y,
+                            position.z + z * ChunkConstants.SIZE_Z);
+                    if (!worldProvider.isBlockRelevant(probe)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem;
+
+import org.terasology.math.geom.Vector3f;
+
+/**
+ * Spreads players spawning at one base over a set of spawn pads so that they do not end up inside each other.
+ * <p>
+ * A pad counts as occupied for {@value #OCCUPANCY_MS} ms after a player was sent to it. Pads are handed out in least
+ * recently used order: as every spawn goes through the allocator, the pad after the last one handed out is the least
+ * recently used, so allocation is usually a single check. When that pad is still occupied the following ones are
+ * checked, at most once each, and if all are occupied the least recently used pad is returned anyway.
+ * Allocation does not create objects.
+ */
+public class SpawnPadAllocator {
+    /** How long a player is assumed to stand on the pad it spawned on. */
+    public static final long OCCUPANCY_MS = 3000;
+
+    private final float[] padX;
+    private final float[] padY;
+    private final float[] padZ;
+    /** The occupancy grid: game time until which each pad is taken. */
+    private final long[] occupiedUntil;
+    private int next;
+
+    /**
+     * @param center the base spawn point
+     * @param padOffsets the pads, relative to the center
+     */
+    public SpawnPadAllocator(Vector3f center, Vector3f[] padOffsets) {
+        if (padOffsets.length == 0) {
+            throw new IllegalArgumentException("A base needs at least one spawn pad");
+        }
+        int count = padOffsets.length;
+        padX = new float[count];
+        padY = new float[count];
+        padZ = new float[count];
+        occupiedUntil = new long[count];
+        for (int i = 0; i < count; i++) {
+            padX[i] = center.x + padOffsets[i].x;
+            padY[i] = center.y + padOffsets[i].y;
+            padZ[i] = center.z + padOffsets[i].z;
+        }
+    }
+
+    public int getPadCount() {
+        return occupiedUntil.length;
+    }
+
+    /**
+     * Picks the least recently used free pad and marks it occupied.
+     *
+     * @param now the current game time in ms
+     * @param result set to the position of the pad
+     * @return result
+     */
+    public Vector3f allocate(long now, Vector3f result) {
+        int count = occupiedUntil.length;
+        int pad = next;
+        for (int checked = 0; checked < count && occupiedUntil[pad] > now; checked++) {
+            pad = pad + 1 == count ? 0 : pad + 1;
+        }
+        if (occupiedUntil[pad] > now) {
+            // Everything is taken; fall back to the least recently used pad
+            pad = next;
+        }
+        occupiedUntil[pad] = now + OCCUPANCY_MS;
+        next = pad + 1 == count ? 0 : pad + 1;
+        result.set(padX[pad], padY[pad], padZ[pad]);
+        return result;
+    }
+}
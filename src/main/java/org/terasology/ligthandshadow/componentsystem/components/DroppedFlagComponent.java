@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.componentsystem.components;
+
+import org.terasology.entitySystem.Component;
+
+/**
+ * Marks a dropped flag item and remembers when it returns to its base, so the return survives the item being
+ * unloaded or the game being reloaded.
+ *
+ * @see org.terasology.ligthandshadow.componentsystem.controllers.FlagAuthoritySystem
+ */
+public class DroppedFlagComponent implements Component {
+    /**
+     * The game time in ms at which the flag returns to its base.
+     */
+    public long returnTime;
+
+    public DroppedFlagComponent() {
+    }
+
+    public DroppedFlagComponent(long returnTime) {
+        this.returnTime = returnTime;
+    }
+}
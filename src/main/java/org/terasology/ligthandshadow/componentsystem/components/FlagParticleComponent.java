@@ -17,7 +17,9 @@ package org.terasology.ligthandshadow.componentsystem.components;
 
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 
 public class FlagParticleComponent implements Component {
     public EntityRef particleEntity = EntityRef.NULL;
+    public int team = LASTeams.NONE;
 }
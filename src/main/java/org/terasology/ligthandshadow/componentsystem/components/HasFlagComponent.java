@@ -16,6 +16,7 @@
 package org.terasology.ligthandshadow.componentsystem.components;
 
 import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.network.Replicate;
 import org.terasology.world.block.ForceBlockActive;
 import org.terasology.world.block.items.AddToBlockBasedItem;
@@ -24,9 +25,23 @@ import org.terasology.world.block.items.AddToBlockBasedItem;
  * This is attached to player entities to indicate whether or not they have a
  * flag in their inventory
  * String flag indicates the team of the flag being held
+ * The flag item and its inventory slot are kept on the server so the flag can be found without scanning the inventory
  */
 
 public class HasFlagComponent implements Component {
     @Replicate
     public String flag;
+
+    public EntityRef flagItem = EntityRef.NULL;
+
+    public int slot = -1;
+
+    public HasFlagComponent() {
+    }
+
+    public HasFlagComponent(String flag, EntityRef flagItem, int slot) {
+        this.flag = flag;
+        this.flagItem = flagItem;
+        this.slot = slot;
+    }
 }
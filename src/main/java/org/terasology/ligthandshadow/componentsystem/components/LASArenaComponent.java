@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem.components;
+
+import org.terasology.entitySystem.Component;
+
+/**
+ * Assigns a player, base or flag item to the match played in the arena with this id.
+ * Entities without it belong to the default arena.
+ *
+ * @see org.terasology.ligthandshadow.componentsystem.controllers.MatchManager
+ */
+public class LASArenaComponent implements Component {
+    public int arena;
+
+    public LASArenaComponent() {
+    }
+
+    public LASArenaComponent(int arena) {
+        this.arena = arena;
+    }
+}
@@ -16,6 +16,7 @@
 package org.terasology.ligthandshadow.componentsystem.components;
 
 import org.terasology.entitySystem.Component;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.network.FieldReplicateType;
 import org.terasology.network.Replicate;
 
@@ -23,10 +24,27 @@ public final class LASTeamComponent implements Component {
     @Replicate(FieldReplicateType.SERVER_TO_CLIENT)
     public String team;
 
+    /**
+     * The id resolved for {@link #resolvedTeam}; both are re-resolved whenever {@link #team} is assigned a new value.
+     */
+    private transient String resolvedTeam;
+    private transient int teamId = LASTeams.NONE;
+
     public LASTeamComponent() {
     }
 
     public LASTeamComponent(String team) {
         this.team = team;
     }
+
+    /**
+     * @return the id of the team in {@link LASTeams}, or {@link LASTeams#NONE}
+     */
+    public int getTeamId() {
+        if (team != resolvedTeam) {
+            teamId = LASTeams.getId(team);
+            resolvedTeam = team;
+        }
+        return teamId;
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem.components;
+
+import org.terasology.entitySystem.Component;
+
+/**
+ * Marks an item that holds the items a player dropped on death in its inventory. Picking it up moves its contents
+ * into the inventory of the player.
+ *
+ * @see org.terasology.ligthandshadow.componentsystem.controllers.PlayerDeathSystem
+ * @see org.terasology.ligthandshadow.componentsystem.controllers.LootBagSystem
+ */
+public class LootBagComponent implements Component {
+    /**
+     * Set while the dying player drops the bag. The bag briefly passes through their inventory then, and must not be
+     * emptied back into it.
+     */
+    public boolean dropping;
+}
@@ -20,8 +20,8 @@ import org.terasology.network.Replicate;
 
 /**
  * Component to store a players game statistics.
- * It currently stores deaths and kills.
- *
+ * It stores kills, deaths, flag captures and returns and the time spent carrying the flag.
+ * Updated at a bounded rate by {@link org.terasology.ligthandshadow.stats.PlayerStatisticsSystem}.
  */
 public class PlayerStatisticsComponent implements Component {
     @Replicate
@@ -30,6 +30,16 @@ public class PlayerStatisticsComponent implements Component {
     @Replicate
     public int deaths;
 
+    @Replicate
+    public int captures;
+
+    @Replicate
+    public int returns;
+
+    /** In milliseconds. */
+    @Replicate
+    public int carryTime;
+
     public  PlayerStatisticsComponent() {
         this.kills = 0;
         this.deaths = 0;
@@ -18,20 +18,24 @@ package org.terasology.ligthandshadow.componentsystem.controllers;
 
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
-import org.terasology.entitySystem.event.Event;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.ligthandshadow.componentsystem.Match;
 import org.terasology.ligthandshadow.componentsystem.components.BlackFlagComponent;
 import org.terasology.ligthandshadow.componentsystem.components.FlagDropOnActivateComponent;
 import org.terasology.ligthandshadow.componentsystem.components.HasFlagComponent;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
 import org.terasology.ligthandshadow.componentsystem.components.RaycastOnActivateComponent;
 import org.terasology.ligthandshadow.componentsystem.components.RedFlagComponent;
-import org.terasology.ligthandshadow.componentsystem.events.FlagDropEvent;
-import org.terasology.ligthandshadow.componentsystem.events.FlagPickupEvent;
+import org.terasology.ligthandshadow.componentsystem.events.LoadoutResetEvent;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.stats.PlayerStatisticsSystem;
 import org.terasology.logic.characters.CharacterHeldItemComponent;
 import org.terasology.logic.common.ActivateEvent;
 import org.terasology.logic.inventory.InventoryManager;
@@ -40,14 +44,16 @@ import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.logic.players.PlayerCharacterComponent;
 import org.terasology.math.geom.Vector3f;
-import org.terasology.network.ClientComponent;
 import org.terasology.registry.In;
 import org.terasology.world.WorldProvider;
-import org.terasology.world.block.BlockManager;
-import org.terasology.world.block.items.BlockItemComponent;
 
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class AttackSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_ACTIVATE_LATENCY = LASMetrics.handler("AttackSystem.onActivate");
+    private static final LatencyHistogram ON_INVENTORY_SLOT_CHANGED_LATENCY =
+            LASMetrics.handler("AttackSystem.onInventorySlotChanged");
+    private static final LatencyHistogram ON_LOADOUT_RESET_LATENCY = LASMetrics.handler("AttackSystem.onLoadoutReset");
+
     @In
     InventoryManager inventoryManager;
     @In
@@ -55,14 +61,23 @@ public class AttackSystem extends BaseComponentSystem {
     @In
     private WorldProvider worldProvider;
     @In
-    private BlockManager blockManager;
+    private FlagRegistry flagRegistry;
+    @In
+    private MatchBroadcastSystem matchBroadcastSystem;
+    @In
+    private MatchJournalSystem matchJournal;
+    @In
+    private PlayerStatisticsSystem playerStatistics;
+    @In
+    private MatchManager matchManager;
 
-    private EntityRef flagSlot;
     private EntityRef item;
 
     @ReceiveEvent(components = {FlagDropOnActivateComponent.class, PlayerCharacterComponent.class, HasFlagComponent.class})
     public void onActivate(ActivateEvent event, EntityRef entity) {
-        dropFlagOnPlayerAttack(event, entity);
+        LASMetrics.time(ON_ACTIVATE_LATENCY, () -> {
+            dropFlagOnPlayerAttack(event, entity);
+        });
     }
 
     /**
@@ -74,35 +89,22 @@ public class AttackSystem extends BaseComponentSystem {
         EntityRef attackingPlayer = event.getInstigator(); // The player using the staff to attack
         if (canPlayerAttack(attackingPlayer)) {
             if (targetPlayer.hasComponent(PlayerCharacterComponent.class) && targetPlayer.hasComponent(HasFlagComponent.class)) {
-                // If the target player has the black flag
-                if (targetPlayer.getComponent(HasFlagComponent.class).flag.equals(LASUtils.BLACK_TEAM)) {
-                    dropFlag(targetPlayer, attackingPlayer, LASUtils.BLACK_FLAG_URI);
-                    return;
-                }
-                if (targetPlayer.getComponent(HasFlagComponent.class).flag.equals(LASUtils.RED_TEAM)) {
-                    dropFlag(targetPlayer, attackingPlayer, LASUtils.RED_FLAG_URI);
-                    return;
-                }
+                dropFlag(targetPlayer, attackingPlayer);
             }
         }
     }
 
-    private void dropFlag(EntityRef targetPlayer, EntityRef attackingPlayer, String flagTeam) {
-        int inventorySize = inventoryManager.getNumSlots(targetPlayer);
-        for (int slotNumber = 0; slotNumber <= inventorySize; slotNumber++) {
-            EntityRef inventorySlot = inventoryManager.getItemInSlot(targetPlayer, slotNumber);
-            if (inventorySlot.hasComponent(BlockItemComponent.class)) {
-                if (inventorySlot.getComponent(BlockItemComponent.class).blockFamily.getURI().toString().equals(flagTeam)) {
-                    flagSlot = inventorySlot;
-                }
-            }
+    private void dropFlag(EntityRef targetPlayer, EntityRef attackingPlayer) {
+        EntityRef heldFlag = LASUtils.getHeldFlag(targetPlayer, inventoryManager);
+        if (!heldFlag.exists()) {
+            return;
         }
         Vector3f startPosition = new Vector3f(targetPlayer.getComponent(LocationComponent.class).getLocalPosition());
         Vector3f endPosition = new Vector3f(attackingPlayer.getComponent(LocationComponent.class).getLocalPosition());
         Vector3f newPosition = new Vector3f((startPosition.x + endPosition.x) / 2,
                 (startPosition.y + endPosition.y) / 2,
                 (startPosition.z + endPosition.z) / 2);
-        targetPlayer.send(new DropItemRequest(flagSlot, targetPlayer, newPosition, startPosition));
+        targetPlayer.send(new DropItemRequest(heldFlag, targetPlayer, newPosition, startPosition));
     }
 
     private boolean canPlayerAttack(EntityRef attackingPlayer) {
@@ -118,72 +120,98 @@ public class AttackSystem extends BaseComponentSystem {
      * If so, moves flag back to base, otherwise adds particle emitter and HasFlagComponent to player
      * <p>
      * Otherwise checks if player puts down flag. If so, removes particle emitter and HasFlagComponent from player
+     * <p>
+     * The HasFlagComponent records the flag item and its slot, and is kept current as the flag moves between slots
      */
     @ReceiveEvent(components = {LASTeamComponent.class})
     public void onInventorySlotChanged(InventorySlotChangedEvent event, EntityRef entity) {
-        EntityRef player = entity;
+        LASMetrics.time(ON_INVENTORY_SLOT_CHANGED_LATENCY, () -> {
+            EntityRef player = entity;
+
+            // Check if player picks up flag
+            item = event.getNewItem();
+            if (itemIsFlag(item)) {
+                int flagTeam = checkWhichFlagPicked(event);
+                if (flagTeam == player.getComponent(LASTeamComponent.class).getTeamId()) {
+                    moveFlagToBase(player, flagTeam);
+                    return;
+                } else {
+                    handleFlagPickup(player, flagTeam, item, event.getSlot());
+                    return;
+                }
+            }
 
-        // Check if player picks up flag
-        item = event.getNewItem();
-        if (itemIsFlag(item)) {
-            String flagTeam = checkWhichFlagPicked(event);
-            if (flagTeam.equals(player.getComponent(LASTeamComponent.class).team)) {
-                moveFlagToBase(player, flagTeam);
-                return;
-            } else {
-                handleFlagPickup(player, flagTeam);
-                return;
+            // Checks if player puts down flag
+            item = event.getOldItem();
+            if (itemIsFlag(item)) {
+                HasFlagComponent hasFlag = player.getComponent(HasFlagComponent.class);
+                // A flag moved to another slot has already been re-indexed by the pickup branch
+                if (hasFlag == null || (hasFlag.flagItem.equals(item) && hasFlag.slot == event.getSlot())) {
+                    handleFlagDrop(player);
+                }
             }
-        }
+        });
+    }
 
-        // Checks if player puts down flag
-        item = event.getOldItem();
-        if (itemIsFlag(item)) {
-            handleFlagDrop(player);
-        }
+    /**
+     * A loadout reset replaces the whole inventory at once; a carried flag among the removed items counts as dropped
+     */
+    @ReceiveEvent(components = {LASTeamComponent.class})
+    public void onLoadoutReset(LoadoutResetEvent event, EntityRef player) {
+        LASMetrics.time(ON_LOADOUT_RESET_LATENCY, () -> {
+            for (EntityRef removedItem : event.getRemovedItems()) {
+                if (itemIsFlag(removedItem)) {
+                    handleFlagDrop(player);
+                    return;
+                }
+            }
+        });
     }
 
     private boolean itemIsFlag(EntityRef checkedItem) {
         return (checkedItem.hasComponent(BlackFlagComponent.class) || checkedItem.hasComponent(RedFlagComponent.class));
     }
 
-    private void handleFlagPickup(EntityRef player, String flagTeam) {
-        sendEventToClients(new FlagPickupEvent(player, flagTeam));
-        if (!player.hasComponent(HasFlagComponent.class)) {
-            player.addComponent(new HasFlagComponent());
-            player.getComponent(HasFlagComponent.class).flag = flagTeam;
+    private void handleFlagPickup(EntityRef player, int flagTeam, EntityRef flagItem, int slot) {
+        HasFlagComponent hasFlag = player.getComponent(HasFlagComponent.class);
+        if (hasFlag == null) {
+            matchBroadcastSystem.flagPickedUp(player, flagTeam);
+            matchJournal.recordFlagPickup(player, flagTeam);
+            playerStatistics.flagPickedUp(player);
+            player.addComponent(new HasFlagComponent(LASTeams.getName(flagTeam), flagItem, slot));
+        } else {
+            hasFlag.flagItem = flagItem;
+            hasFlag.slot = slot;
+            player.saveComponent(hasFlag);
         }
     }
 
     private void handleFlagDrop(EntityRef player) {
-        if (player.hasComponent(HasFlagComponent.class)) {
+        HasFlagComponent hasFlag = player.getComponent(HasFlagComponent.class);
+        if (hasFlag != null) {
+            matchJournal.recordFlagDrop(player, LASTeams.getId(hasFlag.flag));
+            playerStatistics.flagDropped(player);
             player.removeComponent(HasFlagComponent.class);
         }
-        sendEventToClients(new FlagDropEvent(player));
+        matchBroadcastSystem.flagDropped(player);
     }
 
-    private void moveFlagToBase(EntityRef playerEntity, String flagTeam) {
-        worldProvider.setBlock(LASUtils.getFlagLocation(flagTeam), blockManager.getBlock(LASUtils.getFlagURI(flagTeam)));
+    private void moveFlagToBase(EntityRef playerEntity, int flagTeam) {
+        Match match = matchManager.getMatchOf(playerEntity);
+        worldProvider.setBlock(match.getFlagLocation(flagTeam), flagRegistry.getFlagBlock(flagTeam));
         inventoryManager.removeItem(playerEntity, EntityRef.NULL, item, true, 1);
+        matchJournal.recordFlagReturn(match, flagTeam);
+        playerStatistics.recordReturn(playerEntity);
     }
 
-    private String checkWhichFlagPicked(InventorySlotChangedEvent event) {
+    private int checkWhichFlagPicked(InventorySlotChangedEvent event) {
         item = event.getNewItem();
         if (item.hasComponent(BlackFlagComponent.class)) {
-            return LASUtils.BLACK_TEAM;
+            return LASTeams.BLACK;
         }
         if (item.hasComponent(RedFlagComponent.class)) {
-            return LASUtils.RED_TEAM;
-        }
-        return null;
-    }
-
-    private void sendEventToClients(Event event) {
-        if (entityManager.getCountOfEntitiesWith(ClientComponent.class) != 0) {
-            Iterable<EntityRef> clients = entityManager.getEntitiesWith(ClientComponent.class);
-            for (EntityRef client : clients) {
-                client.send(event);
-            }
+            return LASTeams.RED;
         }
+        return LASTeams.NONE;
     }
 }
@@ -15,7 +15,6 @@
  */
 package org.terasology.ligthandshadow.componentsystem.controllers;
 
-import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
@@ -23,14 +22,12 @@ import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
-import org.terasology.ligthandshadow.componentsystem.components.PlayerStatisticsComponent;
 import org.terasology.ligthandshadow.componentsystem.events.GameOverEvent;
 import org.terasology.ligthandshadow.componentsystem.events.RestartRequestEvent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.permission.PermissionManager;
 import org.terasology.logic.players.LocalPlayer;
-import org.terasology.logic.players.PlayerCharacterComponent;
-import org.terasology.logic.players.PlayerUtil;
-import org.terasology.network.ClientComponent;
 import org.terasology.registry.In;
 import org.terasology.rendering.nui.NUIManager;
 import org.terasology.rendering.nui.WidgetUtil;
@@ -44,13 +41,13 @@ import org.terasology.rendering.nui.widgets.UILabel;
  */
 @RegisterSystem(RegisterMode.CLIENT)
 public class ClientGameOverSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_GAME_OVER_LATENCY = LASMetrics.handler("ClientGameOverSystem.onGameOver");
+
     @In
     private NUIManager nuiManager;
     @In
     private LocalPlayer localPlayer;
     @In
-    private EntityManager entityManager;
-    @In
     private PermissionManager permissionManager;
 
     /**
@@ -61,41 +58,40 @@ public class ClientGameOverSystem extends BaseComponentSystem {
      */
     @ReceiveEvent
     public void onGameOver(GameOverEvent event, EntityRef entity) {
-        if (localPlayer.getClientEntity().equals(entity)) {
-            nuiManager.removeOverlay(LASUtils.ONLINE_PLAYERS_OVERLAY);
-            DeathScreen deathScreen = nuiManager.pushScreen(LASUtils.DEATH_SCREEN, DeathScreen.class);
-            addPlayerStatisticsInfo(deathScreen);
-            UILabel gameOverDetails = deathScreen.find("gameOverDetails", UILabel.class);
+        LASMetrics.time(ON_GAME_OVER_LATENCY, () -> {
+            if (localPlayer.getClientEntity().equals(entity)) {
+                nuiManager.removeOverlay(LASUtils.ONLINE_PLAYERS_OVERLAY);
+                DeathScreen deathScreen = nuiManager.pushScreen(LASUtils.DEATH_SCREEN, DeathScreen.class);
+                addPlayerStatisticsInfo(deathScreen, event);
+                UILabel gameOverDetails = deathScreen.find("gameOverDetails", UILabel.class);
 
-            if (event.hasRestartPermission) {
-                UIButton restartButton = deathScreen.find("restart", UIButton.class);
-                if (restartButton != null) {
-                    restartButton.setVisible(true);
+                if (event.hasRestartPermission) {
+                    UIButton restartButton = deathScreen.find("restart", UIButton.class);
+                    if (restartButton != null) {
+                        restartButton.setVisible(true);
+                    }
                 }
-            }
 
-            WidgetUtil.trySubscribe(deathScreen, "restart", widget -> triggerRestart());
-            if (gameOverDetails != null) {
-                if (event.winningTeam.equals(localPlayer.getCharacterEntity().getComponent(LASTeamComponent.class).team)) {
-                    gameOverDetails.setText("You Win!");
-                } else {
-                    gameOverDetails.setText("You Lose!");
+                WidgetUtil.trySubscribe(deathScreen, "restart", widget -> triggerRestart());
+                if (gameOverDetails != null) {
+                    LASTeamComponent localTeam = localPlayer.getCharacterEntity().getComponent(LASTeamComponent.class);
+                    if (event.winningTeam.equals(localTeam.team)) {
+                        gameOverDetails.setText("You Win!");
+                    } else {
+                        gameOverDetails.setText("You Lose!");
+                    }
                 }
             }
-        }
+        });
     }
 
-    private void addPlayerStatisticsInfo(DeathScreen deathScreen) {
+    private void addPlayerStatisticsInfo(DeathScreen deathScreen, GameOverEvent event) {
         MigLayout migLayout = deathScreen.find("playerStatistics", MigLayout.class);
         if (migLayout != null) {
-            Iterable<EntityRef> characters = entityManager.getEntitiesWith(PlayerCharacterComponent.class, LASTeamComponent.class);
-            for (EntityRef character : characters) {
-                EntityRef client = character.getOwner();
-                ClientComponent clientComponent = client.getComponent(ClientComponent.class);
-                migLayout.addWidget(new UILabel(PlayerUtil.getColoredPlayerName(clientComponent.clientInfo)), new MigLayout.CCHint());
-                PlayerStatisticsComponent playerStatisticsComponent = character.getComponent(PlayerStatisticsComponent.class);
-                migLayout.addWidget(new UILabel(String.valueOf(playerStatisticsComponent.kills)), new MigLayout.CCHint());
-                migLayout.addWidget(new UILabel(String.valueOf(playerStatisticsComponent.deaths)), new MigLayout.CCHint("wrap"));
+            for (int i = 0; i < event.playerNames.size(); i++) {
+                migLayout.addWidget(new UILabel(event.playerNames.get(i)), new MigLayout.CCHint());
+                migLayout.addWidget(new UILabel(String.valueOf(event.kills.get(i))), new MigLayout.CCHint());
+                migLayout.addWidget(new UILabel(String.valueOf(event.deaths.get(i))), new MigLayout.CCHint("wrap"));
             }
         }
     }
@@ -21,45 +21,110 @@ import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.components.FlagParticleComponent;
-import org.terasology.ligthandshadow.componentsystem.events.FlagDropEvent;
-import org.terasology.ligthandshadow.componentsystem.events.FlagPickupEvent;
+import org.terasology.ligthandshadow.componentsystem.events.MatchStateUpdateEvent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.pool.EntityPool;
 import org.terasology.logic.location.Location;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.particles.components.ParticleEmitterComponent;
 import org.terasology.registry.In;
 
+/**
+ * Shows a particle effect around players carrying a flag.
+ * <p>
+ * Emitters are recycled through one {@link EntityPool} per team: dropping a flag stops and detaches the emitter, and
+ * the next pickup of that team's flag starts it again.
+ */
 @RegisterSystem(RegisterMode.CLIENT)
 public class ClientParticleSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_MATCH_STATE_UPDATE_LATENCY =
+            LASMetrics.handler("ClientParticleSystem.onMatchStateUpdate");
+
+    private static final int POOL_CAPACITY = 8;
+
     @In
     private EntityManager entityManager;
 
+    private final EntityPool[] flagParticles = new EntityPool[LASTeams.COUNT];
+
+    @Override
+    public void initialise() {
+        for (int team = 0; team < LASTeams.COUNT; team++) {
+            String prefab = LASTeams.getFlagParticle(team);
+            if (prefab != null) {
+                flagParticles[team] = new EntityPool(entityManager, prefab, POOL_CAPACITY, this::stopEmitter);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (EntityPool pool : flagParticles) {
+            if (pool != null) {
+                pool.clear();
+            }
+        }
+    }
+
     @ReceiveEvent
-    public void onFlagPickup(FlagPickupEvent event, EntityRef entity) {
-        String team = event.team;
-        EntityRef player = event.player;
+    public void onMatchStateUpdate(MatchStateUpdateEvent event, EntityRef entity) {
+        LASMetrics.time(ON_MATCH_STATE_UPDATE_LATENCY, () -> {
+            for (EntityRef player : event.flagDrops) {
+                removeFlagParticle(player);
+            }
+            for (int i = 0; i < event.flagCarriers.size(); i++) {
+                addFlagParticle(event.flagCarriers.get(i), event.flagTeams.get(i));
+            }
+        });
+    }
 
-        if (!player.hasComponent(FlagParticleComponent.class)) {
-            EntityRef particleEntity = entityManager.create(LASUtils.getFlagParticle(team));
+    private void addFlagParticle(EntityRef player, int team) {
+        if (player.exists() && !player.hasComponent(FlagParticleComponent.class)
+                && LASTeams.isTeam(team) && flagParticles[team] != null) {
+            EntityRef particleEntity = flagParticles[team].acquire();
+            ParticleEmitterComponent emitter = particleEntity.getComponent(ParticleEmitterComponent.class);
+            if (emitter != null) {
+                emitter.particleSpawnsLeft = ParticleEmitterComponent.INFINITE_PARTICLE_SPAWNS;
+                particleEntity.saveComponent(emitter);
+            }
             LocationComponent targetLoc = player.getComponent(LocationComponent.class);
             LocationComponent childLoc = particleEntity.getComponent(LocationComponent.class);
             childLoc.setWorldPosition(targetLoc.getWorldPosition());
+            particleEntity.saveComponent(childLoc);
             Location.attachChild(player, particleEntity);
             particleEntity.setOwner(player);
-            player.addComponent(new FlagParticleComponent());
-            player.getComponent(FlagParticleComponent.class).particleEntity = particleEntity;
+            FlagParticleComponent flagParticle = new FlagParticleComponent();
+            flagParticle.particleEntity = particleEntity;
+            flagParticle.team = team;
+            player.addComponent(flagParticle);
         }
     }
 
-    @ReceiveEvent
-    public void onFlagDrop(FlagDropEvent event, EntityRef entity) {
-        EntityRef player = event.player;
+    private void removeFlagParticle(EntityRef player) {
         if (player.hasComponent(FlagParticleComponent.class)) {
-            EntityRef particleEntity = player.getComponent(FlagParticleComponent.class).particleEntity;
-            if (particleEntity != EntityRef.NULL) {
-                particleEntity.destroy();
+            FlagParticleComponent flagParticle = player.getComponent(FlagParticleComponent.class);
+            EntityRef particleEntity = flagParticle.particleEntity;
+            if (particleEntity.exists()) {
+                Location.removeChild(player, particleEntity);
+                if (LASTeams.isTeam(flagParticle.team) && flagParticles[flagParticle.team] != null) {
+                    flagParticles[flagParticle.team].release(particleEntity);
+                } else {
+                    particleEntity.destroy();
+                }
             }
             player.removeComponent(FlagParticleComponent.class);
         }
     }
+
+    private void stopEmitter(EntityRef particleEntity) {
+        particleEntity.setOwner(EntityRef.NULL);
+        ParticleEmitterComponent emitter = particleEntity.getComponent(ParticleEmitterComponent.class);
+        if (emitter != null) {
+            emitter.particleSpawnsLeft = 0;
+            particleEntity.saveComponent(emitter);
+        }
+    }
 }
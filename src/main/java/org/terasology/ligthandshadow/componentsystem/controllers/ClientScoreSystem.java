@@ -20,8 +20,10 @@ import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.ligthandshadow.componentsystem.LASUtils;
-import org.terasology.ligthandshadow.componentsystem.events.ScoreUpdateFromServerEvent;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
+import org.terasology.ligthandshadow.componentsystem.events.MatchStateUpdateEvent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.players.LocalPlayer;
 import org.terasology.registry.In;
 import org.terasology.rendering.nui.ControlWidget;
@@ -31,13 +33,15 @@ import org.terasology.rendering.nui.widgets.UILabel;
 
 @RegisterSystem(RegisterMode.CLIENT)
 public class ClientScoreSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_MATCH_STATE_UPDATE_LATENCY =
+            LASMetrics.handler("ClientScoreSystem.onMatchStateUpdate");
+
     @In
     private NUIManager nuiManager;
     @In
     private LocalPlayer localPlayer;
 
-    private int redScore = 0;
-    private int blackScore = 0;
+    private final int[] scores = new int[LASTeams.COUNT];
 
     @Override
     public void postBegin() {
@@ -47,14 +51,14 @@ public class ClientScoreSystem extends BaseComponentSystem {
         blackScoreArea.bindText(new ReadOnlyBinding<String>() {
             @Override
             public String get() {
-                return String.valueOf(blackScore);
+                return String.valueOf(scores[LASTeams.BLACK]);
             }
         });
         UILabel redScoreArea = scoreScreen.find("redScoreArea", UILabel.class);
         redScoreArea.bindText(new ReadOnlyBinding<String>() {
             @Override
             public String get() {
-                return String.valueOf(redScore);
+                return String.valueOf(scores[LASTeams.RED]);
             }
         });
     }
@@ -66,15 +70,14 @@ public class ClientScoreSystem extends BaseComponentSystem {
     }
 
     @ReceiveEvent
-    public void onScoreUpdateFromServer(ScoreUpdateFromServerEvent event, EntityRef entity) {
-        String team = event.team;
-        if (team.equals(LASUtils.RED_TEAM)) {
-            redScore = event.score;
-            return;
-        }
-        if (team.equals(LASUtils.BLACK_TEAM)) {
-            blackScore = event.score;
-            return;
-        }
+    public void onMatchStateUpdate(MatchStateUpdateEvent event, EntityRef entity) {
+        LASMetrics.time(ON_MATCH_STATE_UPDATE_LATENCY, () -> {
+            for (int i = 0; i < event.scoreTeams.size(); i++) {
+                int team = event.scoreTeams.get(i);
+                if (LASTeams.isTeam(team)) {
+                    scores[team] = event.scores.get(i);
+                }
+            }
+        });
     }
 }
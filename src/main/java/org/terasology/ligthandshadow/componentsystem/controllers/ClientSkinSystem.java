@@ -27,6 +27,8 @@ import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.characters.events.CreateVisualCharacterEvent;
 import org.terasology.logic.players.LocalPlayer;
 import org.terasology.registry.In;
@@ -42,6 +44,13 @@ import org.terasology.utilities.Assets;
  */
 @RegisterSystem(RegisterMode.CLIENT)
 public class ClientSkinSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_AWAITED_LOCAL_CHARACTER_SPAWN_EVENT_LATENCY =
+            LASMetrics.handler("ClientSkinSystem.onAwaitedLocalCharacterSpawnEvent");
+    private static final LatencyHistogram ON_CREATE_DEFAULT_VISUAL_CHARACTER_LATENCY =
+            LASMetrics.handler("ClientSkinSystem.onCreateDefaultVisualCharacter");
+    private static final LatencyHistogram ON_LAS_TEAM_CHANGE_LATENCY =
+            LASMetrics.handler("ClientSkinSystem.onLASTeamChange");
+
     @In
     private NUIManager nuiManager;
     @In
@@ -60,7 +69,9 @@ public class ClientSkinSystem extends BaseComponentSystem {
     @ReceiveEvent
     public void onAwaitedLocalCharacterSpawnEvent(AwaitedLocalCharacterSpawnEvent event, EntityRef characterEntity,
                                                   LASTeamComponent lasTeamComponent) {
-        setHealthHUD(lasTeamComponent.team);
+        LASMetrics.time(ON_AWAITED_LOCAL_CHARACTER_SPAWN_EVENT_LATENCY, () -> {
+            setHealthHUD(lasTeamComponent.team);
+        });
     }
 
     /**
@@ -77,13 +88,15 @@ public class ClientSkinSystem extends BaseComponentSystem {
     @ReceiveEvent
     public void onCreateDefaultVisualCharacter(CreateVisualCharacterEvent event, EntityRef characterEntity,
                                                LASTeamComponent lasTeamComponent) {
-        Prefab prefab = assetManager.getAsset("engine:defaultVisualCharacter", Prefab.class).get();
-        EntityBuilder entityBuilder = event.getVisualCharacterBuilder();
-        entityBuilder.addPrefab(prefab);
-        SkeletalMeshComponent skeletalMeshComponent = entityBuilder.getComponent(SkeletalMeshComponent.class);
-        skeletalMeshComponent.material = Assets.getMaterial(LASUtils.getPlayerSkin(lasTeamComponent.team)).get();
-        entityBuilder.saveComponent(skeletalMeshComponent);
-        event.consume();
+        LASMetrics.time(ON_CREATE_DEFAULT_VISUAL_CHARACTER_LATENCY, () -> {
+            Prefab prefab = assetManager.getAsset("engine:defaultVisualCharacter", Prefab.class).get();
+            EntityBuilder entityBuilder = event.getVisualCharacterBuilder();
+            entityBuilder.addPrefab(prefab);
+            SkeletalMeshComponent skeletalMeshComponent = entityBuilder.getComponent(SkeletalMeshComponent.class);
+            skeletalMeshComponent.material = Assets.getMaterial(LASUtils.getPlayerSkin(lasTeamComponent.team)).get();
+            entityBuilder.saveComponent(skeletalMeshComponent);
+            event.consume();
+        });
     }
 
     /**
@@ -96,18 +109,23 @@ public class ClientSkinSystem extends BaseComponentSystem {
      */
     @ReceiveEvent
     public void onLASTeamChange(OnChangedComponent event, EntityRef characterEntity, LASTeamComponent lasTeamComponent) {
-        if (characterEntity.hasComponent(VisualCharacterComponent.class)) {
-            VisualCharacterComponent visualCharacterComponent = characterEntity.getComponent(VisualCharacterComponent.class);
-            EntityRef visualCharacter = visualCharacterComponent.visualCharacter;
-            if (visualCharacter != EntityRef.NULL && visualCharacter.hasComponent(SkeletalMeshComponent.class)) {
-                SkeletalMeshComponent skeletalMeshComponent = visualCharacter.getComponent(SkeletalMeshComponent.class);
-                skeletalMeshComponent.material = Assets.getMaterial(LASUtils.getPlayerSkin(lasTeamComponent.team)).get();
-                visualCharacter.saveComponent(skeletalMeshComponent);
+        LASMetrics.time(ON_LAS_TEAM_CHANGE_LATENCY, () -> {
+            if (characterEntity.hasComponent(VisualCharacterComponent.class)) {
+                VisualCharacterComponent visualCharacterComponent =
+                        characterEntity.getComponent(VisualCharacterComponent.class);
+                EntityRef visualCharacter = visualCharacterComponent.visualCharacter;
+                if (visualCharacter != EntityRef.NULL && visualCharacter.hasComponent(SkeletalMeshComponent.class)) {
+                    SkeletalMeshComponent skeletalMeshComponent =
+                            visualCharacter.getComponent(SkeletalMeshComponent.class);
+                    skeletalMeshComponent.material =
+                            Assets.getMaterial(LASUtils.getPlayerSkin(lasTeamComponent.team)).get();
+                    visualCharacter.saveComponent(skeletalMeshComponent);
+                }
             }
-        }
-        if (characterEntity.getOwner().equals(localPlayer.getClientEntity())) {
-            setHealthHUD(lasTeamComponent.team);
-        }
+            if (characterEntity.getOwner().equals(localPlayer.getClientEntity())) {
+                setHealthHUD(lasTeamComponent.team);
+            }
+        });
     }
 
     private void setHealthHUD(String team) {
@@ -25,6 +25,8 @@ import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.characters.events.OnEnterBlockEvent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.geom.Vector3f;
@@ -39,6 +41,10 @@ import java.util.Set;
  */
 //@RegisterSystem
 public class EnemySystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_ACTIVATED_LATENCY = LASMetrics.handler("EnemySystem.onActivated");
+    private static final LatencyHistogram ON_REMOVED_LATENCY = LASMetrics.handler("EnemySystem.onRemoved");
+    private static final LatencyHistogram ON_BLOCK_CHANGE_LATENCY = LASMetrics.handler("EnemySystem.onBlockChange");
+
     public static final Logger logger = LoggerFactory.getLogger(EnemySystem.class);
     private Map<String, Set<EntityRef>> teams = Maps.newHashMap();
     private Set<EntityRef> entities = Sets.newHashSet();
@@ -54,31 +60,37 @@ public class EnemySystem extends BaseComponentSystem {
 
     @ReceiveEvent
     public void onActivated(OnActivatedComponent event, EntityRef entityRef, LASTeamComponent team, LocationComponent locationComponent) {
-        Set<EntityRef> teamEntities = teams.get(team.team);
-        if (teamEntities == null) {
-            teamEntities = Sets.newHashSet();
-            teams.put(team.team, teamEntities);
-        }
-        teamEntities.add(entityRef);
-        entities.add(entityRef);
+        LASMetrics.time(ON_ACTIVATED_LATENCY, () -> {
+            Set<EntityRef> teamEntities = teams.get(team.team);
+            if (teamEntities == null) {
+                teamEntities = Sets.newHashSet();
+                teams.put(team.team, teamEntities);
+            }
+            teamEntities.add(entityRef);
+            entities.add(entityRef);
 //        recalculateDistances();
-        WorkTargetComponent component = new WorkTargetComponent();
-        component.workUri = "LightAndShadow:attackMinion" + team.team;
-        entityRef.addComponent(component);
+            WorkTargetComponent component = new WorkTargetComponent();
+            component.workUri = "LightAndShadow:attackMinion" + team.team;
+            entityRef.addComponent(component);
+        });
     }
 
     @ReceiveEvent
     public void onRemoved(BeforeRemoveComponent event, EntityRef entityRef, LASTeamComponent team, LocationComponent locationComponent, WorkTargetComponent jobTargetComponent) {
-        entities.remove(entityRef);
-        Set<EntityRef> map = teams.get(team.team);
-        map.remove(entityRef);
+        LASMetrics.time(ON_REMOVED_LATENCY, () -> {
+            entities.remove(entityRef);
+            Set<EntityRef> map = teams.get(team.team);
+            map.remove(entityRef);
+        });
     }
 
     @ReceiveEvent
     public void onBlockChange(OnEnterBlockEvent event, EntityRef entityRef, LASTeamComponent team) {
-        if (entities.contains(entityRef)) {
+        LASMetrics.time(ON_BLOCK_CHANGE_LATENCY, () -> {
+            if (entities.contains(entityRef)) {
 //            recalculateDistances();
-        }
+            }
+        });
     }
 
     private void recalculateDistances() {
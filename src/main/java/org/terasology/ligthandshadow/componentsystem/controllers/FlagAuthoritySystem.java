@@ -15,46 +15,79 @@
  */
 package org.terasology.ligthandshadow.componentsystem.controllers;
 
+import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.EventPriority;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.ligthandshadow.componentsystem.Match;
+import org.terasology.ligthandshadow.componentsystem.components.DroppedFlagComponent;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.metrics.Counter;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.scheduler.LASScheduler;
+import org.terasology.ligthandshadow.scheduler.ScheduledActionEvent;
 import org.terasology.logic.common.lifespan.LifespanComponent;
-import org.terasology.logic.delay.DelayManager;
-import org.terasology.logic.delay.DelayedActionTriggeredEvent;
 import org.terasology.logic.inventory.ItemComponent;
 import org.terasology.logic.inventory.events.DropItemEvent;
 import org.terasology.logic.inventory.events.GiveItemEvent;
 import org.terasology.registry.In;
 import org.terasology.world.WorldProvider;
-import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.items.BlockItemComponent;
 
 /**
  * Handles events related to flag drops and pickups.
+ * <p>
+ * A dropped flag carries a {@link DroppedFlagComponent} with its return time. The {@link LASScheduler} is not
+ * persisted, so the return is scheduled again whenever a dropped flag is loaded.
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class FlagAuthoritySystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_DROP_ITEM_LATENCY =
+            LASMetrics.handler("FlagAuthoritySystem.onDropItemEvent");
+    private static final LatencyHistogram DESTROY_DROPPED_ITEMS_LATENCY =
+            LASMetrics.handler("FlagAuthoritySystem.destroyDroppedItems");
+    private static final LatencyHistogram ON_ACTIVATED_LATENCY =
+            LASMetrics.handler("FlagAuthoritySystem.onDroppedFlagActivated");
+    private static final LatencyHistogram ON_DEACTIVATED_LATENCY =
+            LASMetrics.handler("FlagAuthoritySystem.onDroppedFlagDeactivated");
+    private static final LatencyHistogram ON_GIVE_ITEM_LATENCY =
+            LASMetrics.handler("FlagAuthoritySystem.onGiveItemToCharacterHoldItem");
+    private static final Counter FLAG_RETURNS =
+            LASMetrics.counter("las_dropped_flag_returns_total", "Dropped flags returned to their base.");
 
     @In
-    DelayManager delayManager;
+    LASScheduler scheduler;
+
+    @In
+    Time time;
 
     @In
     WorldProvider worldProvider;
 
     @In
-    BlockManager blockManager;
+    FlagRegistry flagRegistry;
+
+    @In
+    MatchManager matchManager;
+
+    @In
+    MatchJournalSystem matchJournal;
 
     /**
-     * Add a delayed action using delay manager to flags when they are dropped.
+     * Schedule the return of flags to their base when they are dropped.
      * Priority is kept low because we want this handler to be triggered after the default handler of DropItem event to
      * be triggered first and let the LifespanComponent to be copied first.
      *
      * @see org.terasology.logic.inventory.ItemPickupAuthoritySystem
-     * @see DelayManager
+     * @see LASScheduler
      *
      * @param event
      * @param itemEntity
@@ -64,40 +97,68 @@ public class FlagAuthoritySystem extends BaseComponentSystem {
     @ReceiveEvent(priority = EventPriority.PRIORITY_LOW)
     public void onDropItemEvent(DropItemEvent event, EntityRef itemEntity, ItemComponent itemComponent,
                                 BlockItemComponent blockItemComponent) {
-        String blockFamilyURI = blockItemComponent.blockFamily.getURI().toString();
-        if (blockFamilyURI.equals(LASUtils.BLACK_FLAG_URI) || blockFamilyURI.equals(LASUtils.RED_FLAG_URI)) {
-            itemEntity.removeComponent(LifespanComponent.class);
-            delayManager.addDelayedAction(itemEntity, LASUtils.DROPPED_FLAG, LASUtils.FLAG_TELEPORT_DELAY);
-        }
+        LASMetrics.time(ON_DROP_ITEM_LATENCY, () -> {
+            if (flagRegistry.isFlag(blockItemComponent.blockFamily)) {
+                itemEntity.removeComponent(LifespanComponent.class);
+                long returnTime = time.getGameTimeInMs() + LASUtils.FLAG_TELEPORT_DELAY;
+                DroppedFlagComponent droppedFlag = itemEntity.getComponent(DroppedFlagComponent.class);
+                if (droppedFlag == null) {
+                    itemEntity.addComponent(new DroppedFlagComponent(returnTime));
+                } else {
+                    droppedFlag.returnTime = returnTime;
+                    itemEntity.saveComponent(droppedFlag);
+                }
+                scheduler.schedule(itemEntity, LASUtils.DROPPED_FLAG, LASUtils.FLAG_TELEPORT_DELAY);
+            }
+        });
     }
+
     /**
-     * Destroy dropped items except flag after the delay set using delay manager.
-     * Flag is teleported back to the base.
-     * @see DelayManager
-     * @see DelayedActionTriggeredEvent
+     * Reschedule the return of a dropped flag that was loaded, returning it right away if it is overdue.
+     */
+    @ReceiveEvent
+    public void onDroppedFlagActivated(OnActivatedComponent event, EntityRef itemEntity,
+                                       DroppedFlagComponent droppedFlag) {
+        LASMetrics.time(ON_ACTIVATED_LATENCY, () -> {
+            long delay = Math.max(0, droppedFlag.returnTime - time.getGameTimeInMs());
+            scheduler.schedule(itemEntity, LASUtils.DROPPED_FLAG, delay);
+        });
+    }
+
+    @ReceiveEvent(components = DroppedFlagComponent.class)
+    public void onDroppedFlagDeactivated(BeforeDeactivateComponent event, EntityRef itemEntity) {
+        LASMetrics.time(ON_DEACTIVATED_LATENCY, () -> {
+            scheduler.cancel(itemEntity, LASUtils.DROPPED_FLAG);
+        });
+    }
+    /**
+     * Destroy dropped flags once their scheduled return is due.
+     * Flag is teleported back to the base of the match it was taken in.
+     * @see LASScheduler
+     * @see ScheduledActionEvent
      *
      * @param event     The event which is triggered once the delay is over
      * @param entity    The item on which the delay was set
      */
-    @ReceiveEvent
-    public void destroyDroppedItems(DelayedActionTriggeredEvent event, EntityRef entity,
+    @ReceiveEvent(components = DroppedFlagComponent.class)
+    public void destroyDroppedItems(ScheduledActionEvent event, EntityRef entity,
                                     BlockItemComponent blockItemComponent) {
-        if (event.getActionId().equals(LASUtils.DROPPED_FLAG)) {
-            String blockFamilyURI = blockItemComponent.blockFamily.getURI().toString();
-            entity.destroy();
-            if (blockFamilyURI.equals(LASUtils.BLACK_FLAG_URI)) {
-                worldProvider.setBlock(LASUtils.getFlagLocation(LASUtils.BLACK_TEAM),
-                        blockManager.getBlock(LASUtils.getFlagURI(LASUtils.BLACK_TEAM)));
+        LASMetrics.time(DESTROY_DROPPED_ITEMS_LATENCY, () -> {
+            if (event.getActionId().equals(LASUtils.DROPPED_FLAG)) {
+                int flagTeam = flagRegistry.getFlagTeam(blockItemComponent.blockFamily);
+                Match match = matchManager.getMatchOf(entity);
+                entity.destroy();
+                if (flagTeam != LASTeams.NONE) {
+                    worldProvider.setBlock(match.getFlagLocation(flagTeam), flagRegistry.getFlagBlock(flagTeam));
+                    FLAG_RETURNS.increment();
+                    matchJournal.recordFlagReturn(match, flagTeam);
+                }
             }
-            if (blockFamilyURI.equals(LASUtils.RED_FLAG_URI)) {
-                worldProvider.setBlock(LASUtils.getFlagLocation(LASUtils.RED_TEAM),
-                        blockManager.getBlock(LASUtils.getFlagURI(LASUtils.RED_TEAM)));
-            }
-        }
+        });
     }
 
     /**
-     * Remove delay action on flag if it is picked up.
+     * Cancel the scheduled return of a flag if it is picked up, and forget its return time.
      * Priority is kept low because we want this handler to be triggered after the default handler of GiveItem event to
      * be triggered first and check if the event was handled or not.
      *
@@ -109,8 +170,11 @@ public class FlagAuthoritySystem extends BaseComponentSystem {
     @ReceiveEvent(priority = EventPriority.PRIORITY_LOW)
     public void onGiveItemToCharacterHoldItem(GiveItemEvent event, EntityRef item, ItemComponent itemComponent,
                                               BlockItemComponent blockItemComponent) {
-        if (event.isHandled() && delayManager.hasDelayedAction(item, LASUtils.DROPPED_FLAG)) {
-                delayManager.cancelDelayedAction(item, LASUtils.DROPPED_FLAG);
-        }
+        LASMetrics.time(ON_GIVE_ITEM_LATENCY, () -> {
+            if (event.isHandled() && item.hasComponent(DroppedFlagComponent.class)) {
+                scheduler.cancel(item, LASUtils.DROPPED_FLAG);
+                item.removeComponent(DroppedFlagComponent.class);
+            }
+        });
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem.controllers;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.family.BlockFamily;
+import org.terasology.world.block.items.BlockItemComponent;
+
+/**
+ * Resolves the flag block families of all teams once, so that items and blocks can be classified as flags by
+ * comparing block family references instead of building and comparing their URIs.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(FlagRegistry.class)
+public class FlagRegistry extends BaseComponentSystem {
+    @In
+    private BlockManager blockManager;
+
+    private final BlockFamily[] flagFamilies = new BlockFamily[LASTeams.COUNT];
+    private final Block[] flagBlocks = new Block[LASTeams.COUNT];
+
+    @Override
+    public void initialise() {
+        for (int team = 0; team < LASTeams.COUNT; team++) {
+            String flagURI = LASTeams.getFlagURI(team);
+            if (flagURI != null) {
+                flagFamilies[team] = blockManager.getBlockFamily(flagURI);
+                flagBlocks[team] = blockManager.getBlock(flagURI);
+            }
+        }
+    }
+
+    /**
+     * @return the team whose flag this block family is, or {@link LASTeams#NONE}
+     */
+    public int getFlagTeam(BlockFamily blockFamily) {
+        if (blockFamily == null) {
+            return LASTeams.NONE;
+        }
+        for (int team = 0; team < LASTeams.COUNT; team++) {
+            if (flagFamilies[team] == blockFamily) {
+                return team;
+            }
+        }
+        return LASTeams.NONE;
+    }
+
+    /**
+     * @return the team whose flag this item is, or {@link LASTeams#NONE} if it is not a flag
+     */
+    public int getFlagTeam(EntityRef item) {
+        BlockItemComponent blockItem = item.getComponent(BlockItemComponent.class);
+        return blockItem != null ? getFlagTeam(blockItem.blockFamily) : LASTeams.NONE;
+    }
+
+    public boolean isFlag(BlockFamily blockFamily) {
+        return getFlagTeam(blockFamily) != LASTeams.NONE;
+    }
+
+    /**
+     * @return the flag block family of the team, or null if the team has no flag
+     */
+    public BlockFamily getFlagFamily(int team) {
+        return LASTeams.isTeam(team) ? flagFamilies[team] : null;
+    }
+
+    /**
+     * @return the flag block of the team, or null if the team has no flag
+     */
+    public Block getFlagBlock(int team) {
+        return LASTeams.isTeam(team) ? flagBlocks[team] : null;
+    }
+}
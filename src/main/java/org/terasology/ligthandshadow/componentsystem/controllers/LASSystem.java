@@ -19,19 +19,23 @@ import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.Loadouts;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.inventory.InventoryComponent;
 import org.terasology.logic.inventory.InventoryManager;
-import org.terasology.logic.inventory.action.RemoveItemAction;
 import org.terasology.logic.players.event.OnPlayerSpawnedEvent;
 import org.terasology.registry.In;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.BlockManager;
-import org.terasology.world.block.items.BlockItemFactory;
 import org.terasology.world.sun.CelestialSystem;
 
 @RegisterSystem
 public class LASSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_PLAYER_SPAWN_LATENCY = LASMetrics.handler("LASSystem.onPlayerSpawn");
+
     @In
     private EntityManager entityManager;
     @In
@@ -44,15 +48,15 @@ public class LASSystem extends BaseComponentSystem {
     private CelestialSystem celestialSystem;
 
     /**
-     * Gives player inventory items on game start
+     * Clears the player inventory on game start, in a single inventory update
+     *
+     * @see Loadouts
      */
-    @ReceiveEvent
+    @ReceiveEvent(netFilter = RegisterMode.AUTHORITY)
     public void onPlayerSpawn(OnPlayerSpawnedEvent event, EntityRef player, InventoryComponent inventory) {
-        BlockItemFactory blockFactory = new BlockItemFactory(entityManager);
-        for (int i = 0; i < inventoryManager.getNumSlots(player); i++) {
-            EntityRef itemInSlot = inventoryManager.getItemInSlot(player, i);
-            player.send(new RemoveItemAction(player, itemInSlot, true));
-        }
+        LASMetrics.time(ON_PLAYER_SPAWN_LATENCY, () -> {
+            Loadouts.clear(player);
+        });
     }
 
     @Override
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem.controllers;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.components.LootBagComponent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.logic.inventory.InventoryComponent;
+import org.terasology.logic.inventory.InventoryManager;
+import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
+import org.terasology.logic.players.PlayerCharacterComponent;
+import org.terasology.registry.In;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Empties loot bags into the inventory of the player picking them up.
+ * A bag that cannot be emptied because the inventory is full stays in the inventory with the remaining items.
+ * Bags that are being dropped, see {@link LootBagComponent#dropping}, are left alone.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class LootBagSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_INVENTORY_SLOT_CHANGED_LATENCY =
+            LASMetrics.handler("LootBagSystem.onInventorySlotChanged");
+    private static final LatencyHistogram ON_BAG_REMOVED_LATENCY = LASMetrics.handler("LootBagSystem.onBagRemoved");
+
+    @In
+    private InventoryManager inventoryManager;
+
+    @ReceiveEvent(components = {PlayerCharacterComponent.class, InventoryComponent.class})
+    public void onInventorySlotChanged(InventorySlotChangedEvent event, EntityRef player) {
+        LASMetrics.time(ON_INVENTORY_SLOT_CHANGED_LATENCY, () -> {
+            EntityRef bag = event.getNewItem();
+            LootBagComponent lootBag = bag.getComponent(LootBagComponent.class);
+            if (lootBag == null || lootBag.dropping || !bag.hasComponent(InventoryComponent.class)) {
+                return;
+            }
+            int playerSlots = inventoryManager.getNumSlots(player);
+            List<Integer> toSlots = new ArrayList<>(playerSlots);
+            for (int slot = 0; slot < playerSlots; slot++) {
+                toSlots.add(slot);
+            }
+            boolean empty = true;
+            int bagSlots = inventoryManager.getNumSlots(bag);
+            for (int slot = 0; slot < bagSlots; slot++) {
+                if (inventoryManager.getItemInSlot(bag, slot).exists()) {
+                    inventoryManager.moveItemToSlots(player, bag, slot, player, toSlots);
+                    empty &= !inventoryManager.getItemInSlot(bag, slot).exists();
+                }
+            }
+            if (empty) {
+                inventoryManager.removeItem(player, player, bag, true);
+            }
+        });
+    }
+
+    /**
+     * Destroys what is left in a bag when the bag itself goes away, for example when its pickup expires.
+     */
+    @ReceiveEvent(components = {LootBagComponent.class})
+    public void onBagRemoved(BeforeRemoveComponent event, EntityRef bag, InventoryComponent inventory) {
+        LASMetrics.time(ON_BAG_REMOVED_LATENCY, () -> {
+            for (EntityRef item : inventory.itemSlots) {
+                if (item.exists()) {
+                    item.destroy();
+                }
+            }
+        });
+    }
+}
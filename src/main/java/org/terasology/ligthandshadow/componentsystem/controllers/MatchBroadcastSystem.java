@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem.controllers;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
+import org.terasology.ligthandshadow.componentsystem.Match;
+import org.terasology.ligthandshadow.componentsystem.components.HasFlagComponent;
+import org.terasology.ligthandshadow.componentsystem.events.MatchStateUpdateEvent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.network.ClientComponent;
+import org.terasology.network.events.ConnectedEvent;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects score and flag carrier changes during a tick and sends every client a single
+ * {@link MatchStateUpdateEvent} with the net changes of its own match at the end of it.
+ * Clients that connect get a snapshot of the whole state of their match on the next tick.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(MatchBroadcastSystem.class)
+public class MatchBroadcastSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final LatencyHistogram UPDATE_LATENCY = LASMetrics.handler("MatchBroadcastSystem.update");
+    private static final LatencyHistogram ON_CONNECT_LATENCY = LASMetrics.handler("MatchBroadcastSystem.onConnect");
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private MatchManager matchManager;
+
+    private final Map<Match, PendingChanges> pendingChanges = Maps.newHashMap();
+    private final Map<Match, MatchStateUpdateEvent> deltas = Maps.newHashMap();
+    private final List<EntityRef> joinedClients = Lists.newArrayList();
+
+    /**
+     * Announces the current score of a team with the next update.
+     */
+    public void scoreChanged(Match match, int team) {
+        if (LASTeams.isTeam(team)) {
+            getPendingChanges(match).changedScores[team] = true;
+        }
+    }
+
+    public void flagPickedUp(EntityRef player, int flagTeam) {
+        getPendingChanges(matchManager.getMatchOf(player)).changedCarriers.put(player, flagTeam);
+    }
+
+    public void flagDropped(EntityRef player) {
+        getPendingChanges(matchManager.getMatchOf(player)).changedCarriers.put(player, LASTeams.NONE);
+    }
+
+    /**
+     * Sends the client a snapshot of its match with the next update, e.g. after it changed matches.
+     */
+    public void sendSnapshot(EntityRef client) {
+        joinedClients.add(client);
+    }
+
+    @ReceiveEvent(components = ClientComponent.class)
+    public void onConnect(ConnectedEvent event, EntityRef client) {
+        LASMetrics.time(ON_CONNECT_LATENCY, () -> {
+            sendSnapshot(client);
+        });
+    }
+
+    @Override
+    public void update(float delta) {
+        LASMetrics.time(UPDATE_LATENCY, () -> {
+            if (!joinedClients.isEmpty()) {
+                for (EntityRef client : joinedClients) {
+                    if (client.exists()) {
+                        client.send(createSnapshot(matchManager.getMatchOfClient(client)));
+                    }
+                }
+                joinedClients.clear();
+            }
+
+            if (pendingChanges.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<Match, PendingChanges> entry : pendingChanges.entrySet()) {
+                deltas.put(entry.getKey(), createDelta(entry.getKey(), entry.getValue()));
+            }
+            pendingChanges.clear();
+            for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+                MatchStateUpdateEvent matchDelta = deltas.get(matchManager.getMatchOfClient(client));
+                if (matchDelta != null) {
+                    client.send(matchDelta);
+                }
+            }
+            deltas.clear();
+        });
+    }
+
+    private PendingChanges getPendingChanges(Match match) {
+        return pendingChanges.computeIfAbsent(match, m -> new PendingChanges());
+    }
+
+    private MatchStateUpdateEvent createDelta(Match match, PendingChanges changes) {
+        MatchStateUpdateEvent event = new MatchStateUpdateEvent(false);
+        for (int team = 0; team < LASTeams.COUNT; team++) {
+            if (changes.changedScores[team]) {
+                event.scoreTeams.add(team);
+                event.scores.add(match.getScore(team));
+            }
+        }
+        for (Map.Entry<EntityRef, Integer> entry : changes.changedCarriers.entrySet()) {
+            if (entry.getValue() == LASTeams.NONE) {
+                event.flagDrops.add(entry.getKey());
+            } else {
+                event.flagCarriers.add(entry.getKey());
+                event.flagTeams.add(entry.getValue());
+            }
+        }
+        return event;
+    }
+
+    private MatchStateUpdateEvent createSnapshot(Match match) {
+        MatchStateUpdateEvent event = new MatchStateUpdateEvent(true);
+        for (int team = 0; team < LASTeams.COUNT; team++) {
+            event.scoreTeams.add(team);
+            event.scores.add(match.getScore(team));
+        }
+        for (EntityRef carrier : entityManager.getEntitiesWith(HasFlagComponent.class)) {
+            int flagTeam = LASTeams.getId(carrier.getComponent(HasFlagComponent.class).flag);
+            if (flagTeam != LASTeams.NONE && matchManager.getMatchOf(carrier) == match) {
+                event.flagCarriers.add(carrier);
+                event.flagTeams.add(flagTeam);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * The changes to one match since the last update.
+     */
+    private static final class PendingChanges {
+        private final boolean[] changedScores = new boolean[LASTeams.COUNT];
+
+        /**
+         * The flag team each player carries after this tick, or {@link LASTeams#NONE} if they dropped it.
+         */
+        private final Map<EntityRef, Integer> changedCarriers = Maps.newLinkedHashMap();
+    }
+}
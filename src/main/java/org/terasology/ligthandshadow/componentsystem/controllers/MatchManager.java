@@ -0,0 +1,287 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.componentsystem.controllers;
+
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.ArenaWorldGenerator;
+import org.terasology.ligthandshadow.componentsystem.LASArenas;
+import org.terasology.ligthandshadow.componentsystem.Match;
+import org.terasology.ligthandshadow.componentsystem.components.HasFlagComponent;
+import org.terasology.ligthandshadow.componentsystem.components.LASArenaComponent;
+import org.terasology.ligthandshadow.componentsystem.components.LASMatchListComponent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.logic.characters.CharacterTeleportEvent;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.console.commandSystem.annotations.Sender;
+import org.terasology.logic.players.event.OnPlayerSpawnedEvent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.ClientComponent;
+import org.terasology.network.NetworkSystem;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.world.block.BlockComponent;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Keeps the matches running on this server and routes entities to them through their {@link LASArenaComponent}.
+ * The default match in arena 0 always exists and is used for every entity without an arena.
+ * <p>
+ * Further matches can only be started in arenas the world generator built, see {@link ArenaWorldGenerator}. The arenas
+ * with a running match are persisted in a {@link LASMatchListComponent} and restored with the world. Each match keeps
+ * the roster of its clients, which is updated as clients connect, spawn, join a match and leave.
+ */
+@RegisterSystem
+@Share(MatchManager.class)
+public class MatchManager extends BaseComponentSystem {
+    private static final LatencyHistogram ON_CLIENT_ACTIVATED_LATENCY =
+            LASMetrics.handler("MatchManager.onClientActivated");
+    private static final LatencyHistogram ON_CLIENT_CHANGED_LATENCY =
+            LASMetrics.handler("MatchManager.onClientChanged");
+    private static final LatencyHistogram ON_CLIENT_DEACTIVATED_LATENCY =
+            LASMetrics.handler("MatchManager.onClientDeactivated");
+    private static final LatencyHistogram ON_PLAYER_SPAWNED_LATENCY =
+            LASMetrics.handler("MatchManager.onPlayerSpawned");
+
+    public static final int DEFAULT_ARENA = 0;
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private NetworkSystem networkSystem;
+    @In
+    private WorldGenerator worldGenerator;
+    @In
+    private MatchBroadcastSystem matchBroadcastSystem;
+
+    private Match[] matches;
+    private final Map<EntityRef, Match> clientMatches = Maps.newHashMap();
+    private EntityRef matchList = EntityRef.NULL;
+
+    @Override
+    public void initialise() {
+        int arenaCount = worldGenerator instanceof ArenaWorldGenerator
+                ? Math.max(1, ((ArenaWorldGenerator) worldGenerator).getArenaCount())
+                : 1;
+        matches = new Match[arenaCount];
+        matches[DEFAULT_ARENA] = new Match(DEFAULT_ARENA, LASArenas.getOrigin(DEFAULT_ARENA));
+    }
+
+    @Override
+    public void postBegin() {
+        if (!networkSystem.getMode().isAuthority()) {
+            return;
+        }
+        for (EntityRef entity : entityManager.getEntitiesWith(LASMatchListComponent.class)) {
+            matchList = entity;
+            for (int arena : entity.getComponent(LASMatchListComponent.class).arenas) {
+                if (isArena(arena) && matches[arena] == null) {
+                    matches[arena] = new Match(arena, LASArenas.getOrigin(arena));
+                }
+            }
+        }
+        if (!matchList.exists()) {
+            matchList = entityManager.create(new LASMatchListComponent());
+        }
+    }
+
+    @ReceiveEvent(components = ClientComponent.class, netFilter = RegisterMode.AUTHORITY)
+    public void onClientActivated(OnActivatedComponent event, EntityRef client) {
+        LASMetrics.time(ON_CLIENT_ACTIVATED_LATENCY, () -> {
+            updateRoster(client);
+        });
+    }
+
+    /**
+     * The client component changes when the client gets its character.
+     */
+    @ReceiveEvent(components = ClientComponent.class, netFilter = RegisterMode.AUTHORITY)
+    public void onClientChanged(OnChangedComponent event, EntityRef client) {
+        LASMetrics.time(ON_CLIENT_CHANGED_LATENCY, () -> {
+            updateRoster(client);
+        });
+    }
+
+    @ReceiveEvent(components = ClientComponent.class, netFilter = RegisterMode.AUTHORITY)
+    public void onClientDeactivated(BeforeDeactivateComponent event, EntityRef client) {
+        LASMetrics.time(ON_CLIENT_DEACTIVATED_LATENCY, () -> {
+            Match match = clientMatches.remove(client);
+            if (match != null) {
+                match.removeClient(client);
+            }
+        });
+    }
+
+    @ReceiveEvent(netFilter = RegisterMode.AUTHORITY)
+    public void onPlayerSpawned(OnPlayerSpawnedEvent event, EntityRef character) {
+        LASMetrics.time(ON_PLAYER_SPAWNED_LATENCY, () -> {
+            EntityRef client = character.getOwner();
+            if (client.hasComponent(ClientComponent.class)) {
+                updateRoster(client);
+            }
+        });
+    }
+
+    public Match getDefaultMatch() {
+        return matches[DEFAULT_ARENA];
+    }
+
+    /**
+     * @return the match in that arena, or null if there is none
+     */
+    public Match getMatch(int arena) {
+        return isArena(arena) ? matches[arena] : null;
+    }
+
+    /**
+     * Players and flag items carry their arena. Base blocks are never tagged, so they are matched by their position.
+     *
+     * @return the match of a player, base or flag item
+     */
+    public Match getMatchOf(EntityRef entity) {
+        LASArenaComponent arenaComponent = entity.getComponent(LASArenaComponent.class);
+        if (arenaComponent != null) {
+            Match match = getMatch(arenaComponent.arena);
+            return match != null ? match : getDefaultMatch();
+        }
+        BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
+        return blockComponent != null ? getMatchAt(blockComponent.getPosition()) : getDefaultMatch();
+    }
+
+    /**
+     * @return the match whose bases contain the block position, or the default match
+     */
+    public Match getMatchAt(Vector3i position) {
+        for (Match match : matches) {
+            if (match != null && match.isBaseBlock(position)) {
+                return match;
+            }
+        }
+        return getDefaultMatch();
+    }
+
+    /**
+     * @return the match of the character controlled by a client
+     */
+    public Match getMatchOfClient(EntityRef client) {
+        ClientComponent clientComponent = client.getComponent(ClientComponent.class);
+        return clientComponent != null ? getMatchOf(clientComponent.character) : getDefaultMatch();
+    }
+
+    /**
+     * @return the clients whose characters play in the match
+     */
+    public Collection<EntityRef> getClients(Match match) {
+        return match.getClients();
+    }
+
+    /**
+     * Starts a match in one of the arenas of the world and remembers it with the world.
+     *
+     * @return the new match, or null if the world has no such arena or it already has a match
+     */
+    public Match createMatch(int arena) {
+        if (!isArena(arena) || matches[arena] != null) {
+            return null;
+        }
+        Match match = new Match(arena, LASArenas.getOrigin(arena));
+        matches[arena] = match;
+        LASMatchListComponent matchListComponent = matchList.getComponent(LASMatchListComponent.class);
+        if (matchListComponent != null) {
+            matchListComponent.arenas.add(arena);
+            matchList.saveComponent(matchListComponent);
+        }
+        return match;
+    }
+
+    public void assign(EntityRef entity, Match match) {
+        LASArenaComponent arenaComponent = entity.getComponent(LASArenaComponent.class);
+        if (arenaComponent == null) {
+            entity.addComponent(new LASArenaComponent(match.getArena()));
+        } else {
+            arenaComponent.arena = match.getArena();
+            entity.saveComponent(arenaComponent);
+        }
+        EntityRef client = entity.getOwner();
+        if (client.hasComponent(ClientComponent.class)) {
+            updateRoster(client);
+        }
+    }
+
+    @Command(shortDescription = "Start a new match",
+            helpText = "Starts a match in one of the arenas built into this world. Arena 0 always has a match.",
+            runOnServer = true)
+    public String startMatch(@CommandParam("arena") int arena) {
+        if (matches.length == 1) {
+            return "This world only has the default arena.";
+        }
+        if (!isArena(arena) || arena == DEFAULT_ARENA) {
+            return "This world has arenas 1 to " + (matches.length - 1) + " for further matches.";
+        }
+        Match match = createMatch(arena);
+        if (match == null) {
+            return "A match is already running in arena " + arena + ".";
+        }
+        return "Started match " + arena + " at " + match.getOrigin();
+    }
+
+    @Command(shortDescription = "Join a match",
+            helpText = "Moves your character into the match running in the arena with the given id",
+            runOnServer = true)
+    public String joinMatch(@Sender EntityRef client, @CommandParam("arena") int arena) {
+        Match match = getMatch(arena);
+        if (match == null) {
+            return "There is no match " + arena + ".";
+        }
+        EntityRef character = client.getComponent(ClientComponent.class).character;
+        if (character.hasComponent(HasFlagComponent.class)) {
+            return "Drop the flag before changing matches.";
+        }
+        assign(character, match);
+        character.send(new CharacterTeleportEvent(new Vector3f(match.getSpawnPosition())));
+        matchBroadcastSystem.sendSnapshot(client);
+        return "Joined match " + arena + ".";
+    }
+
+    private boolean isArena(int arena) {
+        return arena >= 0 && arena < matches.length;
+    }
+
+    private void updateRoster(EntityRef client) {
+        Match match = getMatchOfClient(client);
+        Match previous = clientMatches.put(client, match);
+        if (previous != match) {
+            if (previous != null) {
+                previous.removeClient(client);
+            }
+            match.addClient(client);
+        }
+    }
+}
@@ -16,6 +16,8 @@
 package org.terasology.ligthandshadow.componentsystem.controllers;
 
 import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.EventPriority;
 import org.terasology.entitySystem.event.ReceiveEvent;
@@ -23,13 +25,23 @@ import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.ligthandshadow.componentsystem.components.BlackFlagComponent;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
-import org.terasology.ligthandshadow.componentsystem.components.PlayerStatisticsComponent;
+import org.terasology.ligthandshadow.componentsystem.components.LootBagComponent;
+import org.terasology.ligthandshadow.componentsystem.components.RedFlagComponent;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.metrics.Counter;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.stats.PlayerStatisticsSystem;
 import org.terasology.logic.characters.AliveCharacterComponent;
 import org.terasology.logic.characters.CharacterComponent;
 import org.terasology.logic.characters.CharacterTeleportEvent;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
 import org.terasology.logic.health.BeforeDestroyEvent;
 import org.terasology.logic.health.event.RestoreFullHealthEvent;
+import org.terasology.logic.inventory.InventoryComponent;
 import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.logic.inventory.events.DropItemRequest;
 import org.terasology.logic.location.LocationComponent;
@@ -45,9 +57,18 @@ import org.terasology.world.block.BlockManager;
  */
 @RegisterSystem
 public class PlayerDeathSystem extends BaseComponentSystem {
+    private static final LatencyHistogram BEFORE_DESTROY_LATENCY =
+            LASMetrics.handler("PlayerDeathSystem.beforeDestroy");
+    private static final Counter DEATHS = LASMetrics.counter("las_player_deaths_total", "Player deaths.");
+
+    private static final String LOOT_BAG_URI = "LightAndShadow:lootBag";
+
     @In
     private AssetManager assetManager;
 
+    @In
+    private EntityManager entityManager;
+
     @In
     private InventoryManager inventoryManager;
 
@@ -57,6 +78,22 @@ public class PlayerDeathSystem extends BaseComponentSystem {
     @In
     private BlockManager blockManager;
 
+    @In
+    private MatchManager matchManager;
+
+    @In
+    private MatchJournalSystem matchJournal;
+
+    @In
+    private PlayerStatisticsSystem playerStatistics;
+
+    @In
+    private Time time;
+
+    private Prefab staffPrefab;
+    private boolean lootBags = true;
+    private int[] lootSlots = new int[0];
+
     /**
      * Empty the inventory and send player player back to its base with refilled health.
      * This is a high priority method, hence it receives the event first and consumes it.
@@ -69,40 +106,119 @@ public class PlayerDeathSystem extends BaseComponentSystem {
      */
     @ReceiveEvent(priority = EventPriority.PRIORITY_HIGH)
     public void beforeDestroy(BeforeDestroyEvent event, EntityRef player, CharacterComponent characterComponent, AliveCharacterComponent aliveCharacterComponent) {
-        if (player.hasComponent(PlayerCharacterComponent.class)) {
-            event.consume();
-            String team = player.getComponent(LASTeamComponent.class).team;
-            updateStatistics(event.getInstigator(), "kills");
-            updateStatistics(player, "deaths");
-            dropItemsFromInventory(player);
-            player.send(new RestoreFullHealthEvent(player));
-            player.send(new CharacterTeleportEvent(LASUtils.getTeleportDestination(team)));
+        LASMetrics.time(BEFORE_DESTROY_LATENCY, () -> {
+            if (player.hasComponent(PlayerCharacterComponent.class)) {
+                event.consume();
+                int team = player.getComponent(LASTeamComponent.class).getTeamId();
+                playerStatistics.recordKill(event.getInstigator());
+                playerStatistics.recordDeath(player);
+                DEATHS.increment();
+                matchJournal.recordDeath(player, event.getInstigator());
+                dropItemsFromInventory(player);
+                player.send(new RestoreFullHealthEvent(player));
+                Vector3f spawnPoint = new Vector3f();
+                if (matchManager.getMatchOf(player).allocateSpawnPoint(team, time.getGameTimeInMs(), spawnPoint)) {
+                    player.send(new CharacterTeleportEvent(spawnPoint));
+                }
+            }
+        });
+    }
+
+    /**
+     * Chooses whether items dropped on death go into a single loot bag or are dropped one pickup per slot.
+     * Flags are always dropped on their own so that they return to their base after a while.
+     */
+    @Command(shortDescription = "Set how items are dropped on death",
+            helpText = "bag puts everything a player drops on death into one loot bag, items drops every stack on its "
+                    + "own. Without an argument the current mode is shown.",
+            runOnServer = true)
+    public String deathLoot(@CommandParam(value = "mode", required = false) String mode) {
+        if ("bag".equals(mode)) {
+            lootBags = true;
+        } else if ("items".equals(mode)) {
+            lootBags = false;
+        } else if (mode != null) {
+            return "Unknown mode '" + mode + "', expected bag or items.";
         }
+        return "Items dropped on death " + (lootBags ? "go into a loot bag." : "are dropped one stack at a time.");
     }
 
     private void dropItemsFromInventory(EntityRef player) {
-        Prefab staffPrefab = assetManager.getAsset(LASUtils.MAGIC_STAFF_URI, Prefab.class).orElse(null);
         Vector3f deathPosition = new Vector3f(player.getComponent(LocationComponent.class).getLocalPosition());
         Vector3f impulse = Vector3f.zero();
         int inventorySize = inventoryManager.getNumSlots(player);
-        for (int slotNumber = 0; slotNumber <= inventorySize; slotNumber++) {
+        if (lootSlots.length < inventorySize) {
+            lootSlots = new int[inventorySize];
+        }
+        int lootCount = 0;
+        for (int slotNumber = 0; slotNumber < inventorySize; slotNumber++) {
             EntityRef slot = inventoryManager.getItemInSlot(player, slotNumber);
             Prefab currentPrefab = slot.getParentPrefab();
-            if (currentPrefab != null && !currentPrefab.equals(staffPrefab)) {
-                int count = inventoryManager.getStackSize(slot);
-                player.send(new DropItemRequest(slot, player, impulse, deathPosition, count));
+            if (currentPrefab == null || currentPrefab.equals(getStaffPrefab())) {
+                continue;
+            }
+            if (lootBags && !isFlag(slot)) {
+                lootSlots[lootCount++] = slotNumber;
+            } else {
+                dropStack(player, slot, deathPosition, impulse);
             }
         }
+        if (lootCount == 1) {
+            dropStack(player, inventoryManager.getItemInSlot(player, lootSlots[0]), deathPosition, impulse);
+        } else if (lootCount > 1) {
+            dropLootBag(player, lootCount, deathPosition, impulse);
+        }
     }
 
-    private void updateStatistics(EntityRef player, String type) {
-        PlayerStatisticsComponent playerStatisticsComponent = player.getComponent(PlayerStatisticsComponent.class);
-        if (type.equals("kills")) {
-            playerStatisticsComponent.kills += 1;
+    /**
+     * Moves the first lootCount slots of {@link #lootSlots} into a new loot bag and drops it. The bag is put into the
+     * first emptied slot before the drop, since only items held by the player can be dropped on their behalf.
+     * <p>
+     * Putting the bag there fires an InventorySlotChangedEvent on the player, which {@link LootBagSystem} handles by
+     * emptying bags into the player. Events are delivered synchronously, so the bag is marked as
+     * {@link LootBagComponent#dropping} for the give and the drop request and unmarked once it lies in the world.
+     * If the bag could not be dropped, its stacks are dropped one by one instead.
+     */
+    private void dropLootBag(EntityRef player, int lootCount, Vector3f position, Vector3f impulse) {
+        EntityRef bag = entityManager.create(LOOT_BAG_URI);
+        bag.addOrSaveComponent(new InventoryComponent(lootCount));
+        LootBagComponent lootBag = new LootBagComponent();
+        lootBag.dropping = true;
+        bag.addOrSaveComponent(lootBag);
+        for (int i = 0; i < lootCount; i++) {
+            EntityRef item = inventoryManager.getItemInSlot(player, lootSlots[i]);
+            inventoryManager.moveItem(player, player, lootSlots[i], bag, i, inventoryManager.getStackSize(item));
+        }
+        if (inventoryManager.giveItem(player, player, bag, lootSlots[0])) {
+            player.send(new DropItemRequest(bag, player, impulse, position, 1));
+            if (!bag.equals(inventoryManager.getItemInSlot(player, lootSlots[0]))) {
+                lootBag.dropping = false;
+                bag.saveComponent(lootBag);
+                return;
+            }
+            inventoryManager.removeItem(player, player, bag, false);
+        }
+        for (int i = 0; i < lootCount; i++) {
+            EntityRef item = inventoryManager.getItemInSlot(bag, i);
+            inventoryManager.moveItem(bag, player, i, player, lootSlots[i], inventoryManager.getStackSize(item));
+            dropStack(player, inventoryManager.getItemInSlot(player, lootSlots[i]), position, impulse);
         }
-        if (type.equals("deaths")) {
-            playerStatisticsComponent.deaths += 1;
+        bag.destroy();
+    }
+
+    private void dropStack(EntityRef player, EntityRef item, Vector3f position, Vector3f impulse) {
+        int count = inventoryManager.getStackSize(item);
+        player.send(new DropItemRequest(item, player, impulse, position, count));
+    }
+
+    private static boolean isFlag(EntityRef item) {
+        return item.hasComponent(BlackFlagComponent.class) || item.hasComponent(RedFlagComponent.class);
+    }
+
+    private Prefab getStaffPrefab() {
+        if (staffPrefab == null) {
+            staffPrefab = assetManager.getAsset(LASUtils.MAGIC_STAFF_URI, Prefab.class).orElse(null);
         }
-        player.saveComponent(playerStatisticsComponent);
+        return staffPrefab;
     }
 }
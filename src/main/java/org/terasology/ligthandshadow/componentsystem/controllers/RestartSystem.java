@@ -15,56 +15,190 @@
  */
 package org.terasology.ligthandshadow.componentsystem.controllers;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.ligthandshadow.componentsystem.Match;
+import org.terasology.ligthandshadow.componentsystem.RelevanceAnchors;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
 import org.terasology.ligthandshadow.componentsystem.events.ClientRestartEvent;
+import org.terasology.ligthandshadow.componentsystem.events.RestartCompleteEvent;
 import org.terasology.ligthandshadow.componentsystem.events.RestartRequestEvent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.characters.CharacterTeleportEvent;
+import org.terasology.logic.console.Console;
 import org.terasology.logic.health.event.RestoreFullHealthEvent;
 import org.terasology.logic.permission.PermissionManager;
 import org.terasology.logic.players.LocalPlayer;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.network.ClientComponent;
 import org.terasology.registry.In;
 import org.terasology.rendering.nui.NUIManager;
 import org.terasology.rendering.nui.layers.ingame.DeathScreen;
 import org.terasology.rendering.nui.layouts.miglayout.MigLayout;
+import org.terasology.world.WorldProvider;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 @RegisterSystem
-public class RestartSystem extends BaseComponentSystem {
+public class RestartSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final LatencyHistogram ON_RESTART_REQUEST_LATENCY =
+            LASMetrics.handler("RestartSystem.onRestartRequest");
+    private static final LatencyHistogram UPDATE_LATENCY = LASMetrics.handler("RestartSystem.update");
+    private static final LatencyHistogram ON_RESTART_COMPLETE_LATENCY =
+            LASMetrics.handler("RestartSystem.onRestartComplete");
+    private static final LatencyHistogram ON_CLIENT_RESTART_LATENCY =
+            LASMetrics.handler("RestartSystem.onClientRestart");
+
+    private static final Logger logger = LoggerFactory.getLogger(RestartSystem.class);
+
+    /** Players respawned per tick once the bases are loaded. */
+    private static final int WAVE_SIZE = 4;
+    /** Respawn anyway if the chunks around the bases are not loaded after this long. */
+    private static final long PREWARM_TIMEOUT_MS = 10000;
+
     @In
     LocalPlayer localPlayer;
     @In
-    EntityManager entityManager;
-    @In
     NUIManager nuiManager;
     @In
     PermissionManager permissionManager;
+    @In
+    MatchManager matchManager;
+    @In
+    EntityManager entityManager;
+    @In
+    WorldProvider worldProvider;
+    @In
+    Time time;
+    @In
+    Console console;
+
+    private final Map<Match, StagedRestart> restarts = Maps.newHashMap();
 
     /**
      * System to invoke restart. Only the host can restart the game.
-     * All players' health are restored and they are transported back to their bases.
+     * The chunks around the bases of the requester's match are loaded first. Then all players of the match have
+     * their health restored and are transported back to their bases, {@value #WAVE_SIZE} per tick.
      *
      * @param event
      * @param clientEntity
      */
     @ReceiveEvent(netFilter = RegisterMode.AUTHORITY)
     public void onRestartRequest(RestartRequestEvent event, EntityRef clientEntity, ClientComponent clientComponent) {
-        if (permissionManager.hasPermission(clientComponent.clientInfo, LASUtils.RESTART_PERMISSION)) {
-            Iterable<EntityRef> clients = entityManager.getEntitiesWith(ClientComponent.class);
-            for (EntityRef client: clients) {
-                EntityRef player = client.getComponent(ClientComponent.class).character;
-                String team = player.getComponent(LASTeamComponent.class).team;
-                player.send(new RestoreFullHealthEvent(player));
-                player.send(new CharacterTeleportEvent(LASUtils.getTeleportDestination(team)));
-                client.send(new ClientRestartEvent());
+        LASMetrics.time(ON_RESTART_REQUEST_LATENCY, () -> {
+            if (permissionManager.hasPermission(clientComponent.clientInfo, LASUtils.RESTART_PERMISSION)) {
+                Match match = matchManager.getMatchOfClient(clientEntity);
+                StagedRestart previous = restarts.get(match);
+                if (previous != null) {
+                    previous.releaseAnchors();
+                }
+                List<EntityRef> clients = Lists.newArrayList(matchManager.getClients(match));
+                StagedRestart restart = new StagedRestart(clientEntity, clients, time.getGameTimeInMs());
+                for (int team = 0; team < LASTeams.COUNT; team++) {
+                    Vector3f destination = match.getTeleportDestination(team);
+                    if (destination != null) {
+                        restart.anchors.add(
+                                RelevanceAnchors.create(entityManager, destination, RelevanceAnchors.BASE_DISTANCE));
+                    }
+                }
+                restarts.put(match, restart);
+            }
+        });
+    }
+
+    @Override
+    public void update(float delta) {
+        LASMetrics.time(UPDATE_LATENCY, () -> {
+            if (restarts.isEmpty()) {
+                return;
+            }
+            long now = time.getGameTimeInMs();
+            Iterator<Map.Entry<Match, StagedRestart>> iterator = restarts.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Match, StagedRestart> entry = iterator.next();
+                Match match = entry.getKey();
+                StagedRestart restart = entry.getValue();
+                if (!restart.prewarmed) {
+                    restart.prewarmed = areBasesLoaded(match) || now - restart.startTime >= PREWARM_TIMEOUT_MS;
+                    if (!restart.prewarmed) {
+                        continue;
+                    }
+                }
+                int waveEnd = Math.min(restart.next + WAVE_SIZE, restart.clients.size());
+                for (; restart.next < waveEnd; restart.next++) {
+                    respawn(match, restart.clients.get(restart.next));
+                }
+                if (restart.next >= restart.clients.size()) {
+                    restart.releaseAnchors();
+                    iterator.remove();
+                    long duration = now - restart.startTime;
+                    logger.info("Restarted arena {} with {} players in {} ms", match.getArena(), restart.clients.size(),
+                            duration);
+                    if (restart.requester.exists()) {
+                        restart.requester.send(new RestartCompleteEvent(restart.clients.size(), duration));
+                    }
+                }
             }
+        });
+    }
+
+    private boolean areBasesLoaded(Match match) {
+        for (int team = 0; team < LASTeams.COUNT; team++) {
+            Vector3f destination = match.getTeleportDestination(team);
+            if (destination != null
+                    && !RelevanceAnchors.isReady(worldProvider, destination, RelevanceAnchors.BASE_DISTANCE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void respawn(Match match, EntityRef client) {
+        ClientComponent clientComponent = client.getComponent(ClientComponent.class);
+        if (clientComponent == null) {
+            // The client left while the restart was under way
+            return;
         }
+        EntityRef player = clientComponent.character;
+        LASTeamComponent teamComponent = player.getComponent(LASTeamComponent.class);
+        Vector3f spawnPoint = new Vector3f();
+        if (teamComponent != null
+                && match.allocateSpawnPoint(teamComponent.getTeamId(), time.getGameTimeInMs(), spawnPoint)) {
+            player.send(new RestoreFullHealthEvent(player));
+            player.send(new CharacterTeleportEvent(spawnPoint));
+        }
+        client.send(new ClientRestartEvent());
+    }
+
+    /**
+     * Reports a completed restart in the console of the client that requested it.
+     *
+     * @param event
+     * @param clientEntity
+     */
+    @ReceiveEvent(netFilter = RegisterMode.CLIENT)
+    public void onRestartComplete(RestartCompleteEvent event, EntityRef clientEntity) {
+        LASMetrics.time(ON_RESTART_COMPLETE_LATENCY, () -> {
+            if (localPlayer.getClientEntity().equals(clientEntity)) {
+                console.addMessage("Restart complete: " + event.players + " players respawned in " + event.durationMs
+                        + " ms.");
+            }
+        });
     }
 
     /**
@@ -75,15 +209,39 @@ public class RestartSystem extends BaseComponentSystem {
      */
     @ReceiveEvent(netFilter = RegisterMode.CLIENT)
     public void onClientRestart(ClientRestartEvent event, EntityRef clientEntity) {
-        if (localPlayer.getClientEntity().equals(clientEntity)) {
-            if (nuiManager.isOpen(LASUtils.DEATH_SCREEN)) {
-                DeathScreen deathScreen = (DeathScreen) nuiManager.getScreen(LASUtils.DEATH_SCREEN);
-                MigLayout migLayout = deathScreen.find("playerStatistics", MigLayout.class);
-                if (migLayout != null) {
-                    migLayout.removeAllWidgets();
+        LASMetrics.time(ON_CLIENT_RESTART_LATENCY, () -> {
+            if (localPlayer.getClientEntity().equals(clientEntity)) {
+                if (nuiManager.isOpen(LASUtils.DEATH_SCREEN)) {
+                    DeathScreen deathScreen = (DeathScreen) nuiManager.getScreen(LASUtils.DEATH_SCREEN);
+                    MigLayout migLayout = deathScreen.find("playerStatistics", MigLayout.class);
+                    if (migLayout != null) {
+                        migLayout.removeAllWidgets();
+                    }
+                    nuiManager.closeScreen(LASUtils.DEATH_SCREEN);
                 }
-                nuiManager.closeScreen(LASUtils.DEATH_SCREEN);
             }
+        });
+    }
+
+    private static final class StagedRestart {
+        private final EntityRef requester;
+        private final List<EntityRef> clients;
+        private final long startTime;
+        private final List<EntityRef> anchors = Lists.newArrayList();
+        private boolean prewarmed;
+        private int next;
+
+        private StagedRestart(EntityRef requester, List<EntityRef> clients, long startTime) {
+            this.requester = requester;
+            this.clients = clients;
+            this.startTime = startTime;
+        }
+
+        private void releaseAnchors() {
+            for (EntityRef anchor : anchors) {
+                anchor.destroy();
+            }
+            anchors.clear();
         }
     }
 }
@@ -15,22 +15,26 @@
  */
 package org.terasology.ligthandshadow.componentsystem.controllers;
 
+import com.google.common.collect.Lists;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
-import org.terasology.entitySystem.event.Event;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
-import org.terasology.ligthandshadow.componentsystem.components.BlackFlagComponent;
+import org.terasology.ligthandshadow.componentsystem.Match;
 import org.terasology.ligthandshadow.componentsystem.components.HasFlagComponent;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
-import org.terasology.ligthandshadow.componentsystem.components.RedFlagComponent;
 import org.terasology.ligthandshadow.componentsystem.components.WinConditionCheckOnActivateComponent;
 import org.terasology.ligthandshadow.componentsystem.events.GameOverEvent;
 import org.terasology.ligthandshadow.componentsystem.events.RestartRequestEvent;
-import org.terasology.ligthandshadow.componentsystem.events.ScoreUpdateFromServerEvent;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.metrics.Counter;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.stats.PlayerStatisticsSystem;
 import org.terasology.logic.common.ActivateEvent;
 import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.logic.permission.PermissionManager;
@@ -45,12 +49,16 @@ import org.terasology.rendering.nui.NUIManager;
 import org.terasology.rendering.nui.databinding.ReadOnlyBinding;
 import org.terasology.rendering.nui.widgets.UILabel;
 import org.terasology.world.WorldProvider;
-import org.terasology.world.block.BlockManager;
-import org.terasology.world.block.items.BlockItemComponent;
+
+import java.util.List;
 
 @RegisterSystem(RegisterMode.AUTHORITY)
 @Share(ScoreSystem.class)
 public class ScoreSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_ACTIVATE_LATENCY = LASMetrics.handler("ScoreSystem.onActivate");
+    private static final LatencyHistogram ON_RESTART_REQUEST_LATENCY =
+            LASMetrics.handler("ScoreSystem.onRestartRequest");
+    private static final Counter CAPTURES = LASMetrics.counter("las_flag_captures_total", "Flags captured.");
 
     @In
     private InventoryManager inventoryManager;
@@ -59,33 +67,39 @@ public class ScoreSystem extends BaseComponentSystem {
     @In
     private EntityManager entityManager;
     @In
-    private BlockManager blockManager;
-    @In
     private WorldProvider worldProvider;
     @In
     private LocalPlayer localPlayer;
     @In
     private PermissionManager permissionManager;
-
-    private int redScore;
-    private int blackScore;
+    @In
+    private FlagRegistry flagRegistry;
+    @In
+    private MatchBroadcastSystem matchBroadcastSystem;
+    @In
+    private MatchManager matchManager;
+    @In
+    private MatchJournalSystem matchJournal;
+    @In
+    private PlayerStatisticsSystem playerStatistics;
 
     @Override
     public void postBegin() {
-        // Sets score screen bindings
+        // Sets score screen bindings to the default match
+        Match match = matchManager.getDefaultMatch();
         ControlWidget scoreScreen = nuiManager.getHUD().getHUDElement("LightAndShadow:ScoreHud");
         UILabel blackScoreArea = scoreScreen.find("blackScoreArea", UILabel.class);
         blackScoreArea.bindText(new ReadOnlyBinding<String>() {
             @Override
             public String get() {
-                return String.valueOf(blackScore);
+                return String.valueOf(match.getScore(LASTeams.BLACK));
             }
         });
         UILabel redScoreArea = scoreScreen.find("redScoreArea", UILabel.class);
         redScoreArea.bindText(new ReadOnlyBinding<String>() {
             @Override
             public String get() {
-                return String.valueOf(redScore);
+                return String.valueOf(match.getScore(LASTeams.RED));
             }
         });
     }
@@ -98,133 +112,105 @@ public class ScoreSystem extends BaseComponentSystem {
 
     @ReceiveEvent(components = {WinConditionCheckOnActivateComponent.class, LASTeamComponent.class})
     public void onActivate(ActivateEvent event, EntityRef entity) {
-        checkAndResetGameOnScore(event, entity);
+        LASMetrics.time(ON_ACTIVATE_LATENCY, () -> {
+            checkAndResetGameOnScore(event, entity);
+        });
     }
 
     @ReceiveEvent
     public void onRestartRequest(RestartRequestEvent event, EntityRef clientEntity, ClientComponent clientComponent) {
-        if (permissionManager.hasPermission(clientComponent.clientInfo, LASUtils.RESTART_PERMISSION)) {
-            redScore = 0;
-            blackScore = 0;
-            sendEventToClients(new ScoreUpdateFromServerEvent(LASUtils.RED_TEAM, redScore));
-            sendEventToClients(new ScoreUpdateFromServerEvent(LASUtils.BLACK_TEAM, blackScore));
-        }
+        LASMetrics.time(ON_RESTART_REQUEST_LATENCY, () -> {
+            if (permissionManager.hasPermission(clientComponent.clientInfo, LASUtils.RESTART_PERMISSION)) {
+                Match match = matchManager.getMatchOfClient(clientEntity);
+                match.resetScores();
+                matchJournal.recordRestart(match);
+                for (int team = 0; team < LASTeams.COUNT; team++) {
+                    matchBroadcastSystem.scoreChanged(match, team);
+                }
+            }
+        });
     }
 
     private void checkAndResetGameOnScore(ActivateEvent event, EntityRef entity) {
-        LASTeamComponent baseTeamComponent = entity.getComponent(LASTeamComponent.class);
+        int baseTeam = entity.getComponent(LASTeamComponent.class).getTeamId();
         EntityRef player = event.getInstigator();
-        if (player.hasComponent(HasFlagComponent.class)) {
-            String playerTeam = player.getComponent(LASTeamComponent.class).team;
-            String oppositionTeam = LASUtils.getOppositionTeam(playerTeam);
-            if (oppositionTeam == null) {
+        Match match = matchManager.getMatchOf(player);
+        if (player.hasComponent(HasFlagComponent.class) && matchManager.getMatchOf(entity) == match) {
+            int oppositionTeam = LASTeams.getOpposition(player.getComponent(LASTeamComponent.class).getTeamId());
+            if (oppositionTeam == LASTeams.NONE) {
                 return;
             }
 
-            String flag = LASUtils.getFlagURI(oppositionTeam);
-            EntityRef heldFlag = getHeldFlag(player, flag);
+            EntityRef heldFlag = LASUtils.getHeldFlag(player, inventoryManager);
             if (heldFlag.equals(EntityRef.NULL)) {
                 return;
             }
 
-            if (checkIfTeamScores(baseTeamComponent, heldFlag)) {
-                incrementScore(baseTeamComponent);
-                movePlayerFlagToBase(player, oppositionTeam, heldFlag);
-                if (redScore >= LASUtils.GOAL_SCORE) {
-                    resetLevel();
-                    setGameOverEventToClients(LASUtils.RED_TEAM);
-                }
-                if (blackScore >= LASUtils.GOAL_SCORE) {
-                    resetLevel();
-                    setGameOverEventToClients(LASUtils.BLACK_TEAM);
+            if (checkIfTeamScores(baseTeam, heldFlag)) {
+                incrementScore(match, baseTeam);
+                movePlayerFlagToBase(match, player, oppositionTeam, heldFlag);
+                CAPTURES.increment();
+                playerStatistics.recordCapture(player);
+                matchJournal.recordFlagCapture(player, match, oppositionTeam, match.getScore(baseTeam));
+                if (match.getScore(baseTeam) >= LASUtils.GOAL_SCORE) {
+                    resetLevel(match);
+                    setGameOverEventToClients(match, LASTeams.getName(baseTeam));
                 }
             }
         }
     }
 
-    private void setGameOverEventToClients(String winningTeam) {
-        if (entityManager.getCountOfEntitiesWith(ClientComponent.class) != 0) {
-            Iterable<EntityRef> clients = entityManager.getEntitiesWith(ClientComponent.class);
-            for (EntityRef client : clients) {
-                EntityRef clientInfo = client.getComponent(ClientComponent.class).clientInfo;
-                Boolean hasRestartPermission = permissionManager.hasPermission(clientInfo, LASUtils.RESTART_PERMISSION);
-                client.send(new GameOverEvent(winningTeam, hasRestartPermission));
-            }
+    private void setGameOverEventToClients(Match match, String winningTeam) {
+        List<String> names = Lists.newArrayList();
+        List<Integer> kills = Lists.newArrayList();
+        List<Integer> deaths = Lists.newArrayList();
+        for (EntityRef player : playerStatistics.getRanking(match.getArena(), PlayerStatisticsSystem.KILLS)) {
+            names.add(PlayerStatisticsSystem.getPlayerName(player));
+            kills.add(playerStatistics.getValue(player, PlayerStatisticsSystem.KILLS));
+            deaths.add(playerStatistics.getValue(player, PlayerStatisticsSystem.DEATHS));
         }
-    }
-
-
-    private EntityRef getHeldFlag(EntityRef player, String flag) {
-        int inventorySize = inventoryManager.getNumSlots(player);
-        for (int slotNumber = 0; slotNumber <= inventorySize; slotNumber++) {
-            EntityRef inventorySlot = inventoryManager.getItemInSlot(player, slotNumber);
-            if (inventorySlot.hasComponent(BlockItemComponent.class)) {
-                if (inventorySlot.getComponent(BlockItemComponent.class).blockFamily.getURI().toString().equals(flag)) {
-                    return inventorySlot;
-                }
-            }
+        for (EntityRef client : matchManager.getClients(match)) {
+            EntityRef clientInfo = client.getComponent(ClientComponent.class).clientInfo;
+            Boolean hasRestartPermission = permissionManager.hasPermission(clientInfo, LASUtils.RESTART_PERMISSION);
+            client.send(new GameOverEvent(winningTeam, hasRestartPermission, names, kills, deaths));
         }
-        return EntityRef.NULL;
     }
 
-    private boolean checkIfTeamScores(LASTeamComponent baseTeamComponent, EntityRef heldItem) {
+    private boolean checkIfTeamScores(int baseTeam, EntityRef heldItem) {
         // Check to see if player has other team's flag
-        if (baseTeamComponent.team.equals(LASUtils.RED_TEAM) && heldItem.hasComponent(BlackFlagComponent.class)) {
-            return true;
-        }
-        if (baseTeamComponent.team.equals(LASUtils.BLACK_TEAM) && heldItem.hasComponent(RedFlagComponent.class)) {
-            return true;
-        }
-        return false;
+        int flagTeam = flagRegistry.getFlagTeam(heldItem);
+        return flagTeam != LASTeams.NONE && flagTeam == LASTeams.getOpposition(baseTeam);
     }
 
-    private void incrementScore(LASTeamComponent baseTeamComponent) {
-        if (baseTeamComponent.team.equals(LASUtils.RED_TEAM)) {
-            redScore++;
-            // Send event to clients to update their Score UI
-            sendEventToClients(new ScoreUpdateFromServerEvent(LASUtils.RED_TEAM, redScore));
-            return;
-        }
-        if (baseTeamComponent.team.equals(LASUtils.BLACK_TEAM)) {
-            blackScore++;
-            // Send event to clients to update their Score UI
-            sendEventToClients(new ScoreUpdateFromServerEvent(LASUtils.BLACK_TEAM, blackScore));
+    private void incrementScore(Match match, int team) {
+        if (!LASTeams.isTeam(team)) {
             return;
         }
+        match.incrementScore(team);
+        // Clients get the new score with the next match state update
+        matchBroadcastSystem.scoreChanged(match, team);
     }
 
-    private void resetLevel() {
+    private void resetLevel(Match match) {
         Iterable<EntityRef> playersWithFlag = entityManager.getEntitiesWith(HasFlagComponent.class);
         for (EntityRef playerWithFlag : playersWithFlag) {
-            String playerTeam = playerWithFlag.getComponent(LASTeamComponent.class).team;
-            String oppositionTeam = LASUtils.getOppositionTeam(playerTeam);
-            if (oppositionTeam == null) {
+            if (matchManager.getMatchOf(playerWithFlag) != match) {
                 continue;
             }
-
-            String flag = LASUtils.getFlagURI(oppositionTeam);
-            EntityRef heldFlag = getHeldFlag(playerWithFlag, flag);
-            if (heldFlag.equals(EntityRef.NULL)) {
+            int flagTeam = LASTeams.getId(playerWithFlag.getComponent(HasFlagComponent.class).flag);
+            EntityRef heldFlag = LASUtils.getHeldFlag(playerWithFlag, inventoryManager);
+            if (flagTeam == LASTeams.NONE || heldFlag.equals(EntityRef.NULL)) {
                 continue;
             }
 
-            movePlayerFlagToBase(playerWithFlag, oppositionTeam, heldFlag);
+            movePlayerFlagToBase(match, playerWithFlag, flagTeam, heldFlag);
+            matchJournal.recordFlagReturn(match, flagTeam);
         }
     }
 
-    private void movePlayerFlagToBase(EntityRef player, String oppositionTeam, EntityRef heldFlag) {
-        Vector3i basePosition = LASUtils.getFlagLocation(oppositionTeam);
-        String flag = LASUtils.getFlagURI(oppositionTeam);
+    private void movePlayerFlagToBase(Match match, EntityRef player, int flagTeam, EntityRef heldFlag) {
+        Vector3i basePosition = match.getFlagLocation(flagTeam);
         inventoryManager.removeItem(player, player, heldFlag, true);
-        worldProvider.setBlock(basePosition, blockManager.getBlock(flag));
-    }
-
-    private void sendEventToClients(Event event) {
-        if (entityManager.getCountOfEntitiesWith(ClientComponent.class) != 0) {
-            Iterable<EntityRef> clients = entityManager.getEntitiesWith(ClientComponent.class);
-            for (EntityRef client : clients) {
-                client.send(event);
-            }
-        }
+        worldProvider.setBlock(basePosition, flagRegistry.getFlagBlock(flagTeam));
     }
 }
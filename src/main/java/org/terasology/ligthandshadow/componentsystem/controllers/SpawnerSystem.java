@@ -17,11 +17,20 @@ package org.terasology.ligthandshadow.componentsystem.controllers;
 
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.ligthandshadow.componentsystem.components.SpawnerComponent;
+import org.terasology.ligthandshadow.journal.JournalRecord;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.metrics.Counter;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.scheduler.LASScheduler;
+import org.terasology.ligthandshadow.scheduler.ScheduledActionEvent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.registry.In;
@@ -36,42 +45,75 @@ import java.util.Random;
  * @author synopia
  */
 @RegisterSystem
-public class SpawnerSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+public class SpawnerSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_ACTIVATED_LATENCY = LASMetrics.handler("SpawnerSystem.onActivated");
+    private static final LatencyHistogram ON_DEACTIVATED_LATENCY = LASMetrics.handler("SpawnerSystem.onDeactivated");
+    private static final LatencyHistogram ON_SPAWN_DUE_LATENCY = LASMetrics.handler("SpawnerSystem.onSpawnDue");
+    private static final Counter SPAWNED = LASMetrics.counter("las_minions_spawned_total", "Minions spawned.");
+
+    private static final String SPAWN_ACTION = "las:spawn";
+
     @In
     private EntityManager entityManager;
     @In
     private WorldProvider worldProvider;
-    private Random random = new Random();
+    @In
+    private LASScheduler scheduler;
+    @In
+    private MatchJournalSystem matchJournal;
+    private long seed = new Random().nextLong();
+    private Random random = new Random(seed);
 
     @Override
     public void initialise() {
     }
 
     @Override
-    public void update(float delta) {
-        spawnAll(delta);
+    public void postBegin() {
+        matchJournal.recordSeed(JournalRecord.SEED_SPAWNER, seed);
+    }
+
+    @ReceiveEvent
+    public void onActivated(OnActivatedComponent event, EntityRef block, SpawnerComponent spawnerBlock,
+                            LocationComponent location) {
+        LASMetrics.time(ON_ACTIVATED_LATENCY, () -> {
+            scheduler.schedule(block, SPAWN_ACTION, toMillis(spawnerBlock.cooldown));
+        });
     }
 
-    private void spawnAll(float delta) {
-        for (EntityRef block : entityManager.getEntitiesWith(SpawnerComponent.class, LocationComponent.class)) {
-            SpawnerComponent spawnerBlock = block.getComponent(SpawnerComponent.class);
-            spawnerBlock.cooldown -= delta;
-            if (spawnerBlock.cooldown <= 0) {
-                spawnerBlock.cooldown = spawnerBlock.each;
-                if (spawnerBlock.currentlyAlive < spawnerBlock.max) {
-                    LocationComponent location = block.getComponent(LocationComponent.class);
-                    Vector3f worldPosition = location.getWorldPosition();
-                    List<Prefab> spawn = spawnerBlock.spawn(block);
-                    for (Prefab prefab : spawn) {
-                        float x = worldPosition.x + random.nextInt(3) - 1;
-                        float z = worldPosition.z + random.nextInt(3) - 1;
-                        Vector3f spawnPosition = new Vector3f(x, worldPosition.y + 1, z);
-                        entityManager.create(prefab, spawnPosition);
-                    }
+    @ReceiveEvent(components = {SpawnerComponent.class})
+    public void onDeactivated(BeforeDeactivateComponent event, EntityRef block) {
+        LASMetrics.time(ON_DEACTIVATED_LATENCY, () -> {
+            scheduler.cancel(block, SPAWN_ACTION);
+        });
+    }
+
+    @ReceiveEvent
+    public void onSpawnDue(ScheduledActionEvent event, EntityRef block, SpawnerComponent spawnerBlock,
+                           LocationComponent location) {
+        LASMetrics.time(ON_SPAWN_DUE_LATENCY, () -> {
+            if (!event.getActionId().equals(SPAWN_ACTION)) {
+                return;
+            }
+            spawnerBlock.cooldown = spawnerBlock.each;
+            if (spawnerBlock.currentlyAlive < spawnerBlock.max) {
+                Vector3f worldPosition = location.getWorldPosition();
+                List<Prefab> spawn = spawnerBlock.spawn(block);
+                for (Prefab prefab : spawn) {
+                    float x = worldPosition.x + random.nextInt(3) - 1;
+                    float z = worldPosition.z + random.nextInt(3) - 1;
+                    Vector3f spawnPosition = new Vector3f(x, worldPosition.y + 1, z);
+                    entityManager.create(prefab, spawnPosition);
+                    SPAWNED.increment();
                 }
             }
             block.saveComponent(spawnerBlock);
-        }
+            scheduler.schedule(block, SPAWN_ACTION, toMillis(spawnerBlock.each));
+        });
+    }
+
+    private static long toMillis(float seconds) {
+        return (long) (Math.max(seconds, 0) * 1000);
     }
 
     @Override
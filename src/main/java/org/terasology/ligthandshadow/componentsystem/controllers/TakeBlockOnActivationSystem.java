@@ -23,9 +23,11 @@ import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
 import org.terasology.ligthandshadow.componentsystem.components.TakeBlockOnActivateComponent;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.common.ActivateEvent;
 import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.registry.In;
@@ -37,6 +39,9 @@ import org.terasology.world.block.items.BlockItemFactory;
 
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class TakeBlockOnActivationSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_ACTIVATE_LATENCY =
+            LASMetrics.handler("TakeBlockOnActivationSystem.onActivate");
+
     private static final Logger logger = LoggerFactory.getLogger(TakeBlockOnActivationSystem.class);
 
     @In
@@ -49,28 +54,40 @@ public class TakeBlockOnActivationSystem extends BaseComponentSystem {
     private BlockEntityRegistry blockEntityRegistry;
     @In
     private EntityManager entityManager;
+    @In
+    private FlagRegistry flagRegistry;
+    @In
+    private MatchManager matchManager;
 
     @ReceiveEvent(components = {TakeBlockOnActivateComponent.class, BlockComponent.class})
     public void onActivate(ActivateEvent event, EntityRef entity) {
-        EntityRef flagTaker = event.getInstigator();
+        LASMetrics.time(ON_ACTIVATE_LATENCY, () -> {
+            EntityRef flagTaker = event.getInstigator();
 
-        // If the flag being taken is a red flag and the player is on the black team, let them take the flag
-        if (!playerTeamMatchesFlagTeam(entity, flagTaker)) {
-            giveFlagToPlayer(entity, flagTaker);
-        }
+            // If the flag being taken is a red flag and the player is on the black team, let them take the flag
+            if (canTakeFlag(entity, flagTaker)) {
+                giveFlagToPlayer(entity, flagTaker);
+            }
+        });
     }
 
-    private boolean playerTeamMatchesFlagTeam(EntityRef flag, EntityRef player) {
-        LASTeamComponent flagTeamComponent = flag.getComponent(LASTeamComponent.class);
-        LASTeamComponent playerTeamComponent = player.getComponent(LASTeamComponent.class);
-        return (flagTeamComponent.team.equals(playerTeamComponent.team));
+    /**
+     * Only players of another known team can take a flag; flags or players of unknown teams never match
+     */
+    private boolean canTakeFlag(EntityRef flag, EntityRef player) {
+        int flagTeam = flag.getComponent(LASTeamComponent.class).getTeamId();
+        int playerTeam = player.getComponent(LASTeamComponent.class).getTeamId();
+        return flagTeam != LASTeams.NONE && playerTeam != LASTeams.NONE && flagTeam != playerTeam;
     }
 
     private void giveFlagToPlayer(EntityRef flag, EntityRef player) {
         BlockComponent blockComponent = flag.getComponent(BlockComponent.class);
         LASTeamComponent flagTeamComponent = flag.getComponent(LASTeamComponent.class);
         BlockItemFactory blockFactory = new BlockItemFactory(entityManager);
-        inventoryManager.giveItem(player, EntityRef.NULL, blockFactory.newInstance(blockManager.getBlockFamily(LASUtils.getFlagURI(flagTeamComponent.team))));
+        EntityRef flagItem = blockFactory.newInstance(flagRegistry.getFlagFamily(flagTeamComponent.getTeamId()));
+        // The flag remembers its match so that it returns to the right arena when dropped
+        matchManager.assign(flagItem, matchManager.getMatchOf(player));
+        inventoryManager.giveItem(player, EntityRef.NULL, flagItem);
         worldProvider.setBlock(blockComponent.getPosition(), blockManager.getBlock(BlockManager.AIR_ID));
         flag.destroy();
     }
@@ -15,18 +15,27 @@
  */
 package org.terasology.ligthandshadow.componentsystem.controllers;
 
+import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
 import org.terasology.ligthandshadow.componentsystem.LASUtils;
+import org.terasology.ligthandshadow.componentsystem.Match;
 import org.terasology.ligthandshadow.componentsystem.components.LASTeamComponent;
 import org.terasology.ligthandshadow.componentsystem.components.SetTeamOnActivateComponent;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
 import org.terasology.logic.characters.CharacterTeleportEvent;
 import org.terasology.logic.common.ActivateEvent;
 import org.terasology.logic.inventory.InventoryManager;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.registry.In;
 
 /**
@@ -37,10 +46,22 @@ import org.terasology.registry.In;
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class TeleporterSystem extends BaseComponentSystem {
+    private static final LatencyHistogram ON_ACTIVATE_LATENCY = LASMetrics.handler("TeleporterSystem.onActivate");
+
     @In
     InventoryManager inventoryManager;
     @In
     EntityManager entityManager;
+    @In
+    MatchManager matchManager;
+    @In
+    MatchJournalSystem matchJournal;
+    @In
+    Time time;
+    @In
+    AssetManager assetManager;
+
+    private Prefab staffPrefab;
 
     /**
      * Depending on which teleporter the player chooses, they are set to that team
@@ -51,9 +72,11 @@ public class TeleporterSystem extends BaseComponentSystem {
      */
     @ReceiveEvent(components = {SetTeamOnActivateComponent.class})
     public void onActivate(ActivateEvent event, EntityRef entity) {
-        EntityRef player = event.getInstigator();
-        String team = setPlayerTeamToTeleporterTeam(player, entity);
-        handlePlayerTeleport(player, team);
+        LASMetrics.time(ON_ACTIVATE_LATENCY, () -> {
+            EntityRef player = event.getInstigator();
+            String team = setPlayerTeamToTeleporterTeam(player, entity);
+            handlePlayerTeleport(player, team);
+        });
     }
 
     private String setPlayerTeamToTeleporterTeam(EntityRef player, EntityRef teleporter) {
@@ -61,11 +84,36 @@ public class TeleporterSystem extends BaseComponentSystem {
         LASTeamComponent playerTeamComponent = player.getComponent(LASTeamComponent.class);
         playerTeamComponent.team = teleporterTeamComponent.team;
         player.saveComponent(playerTeamComponent);
+        matchJournal.recordTeamChange(player, playerTeamComponent.getTeamId());
         return playerTeamComponent.team;
     }
 
     private void handlePlayerTeleport(EntityRef player, String team) {
-        player.send(new CharacterTeleportEvent(LASUtils.getTeleportDestination(team)));
-        inventoryManager.giveItem(player, EntityRef.NULL, entityManager.create(LASUtils.MAGIC_STAFF_URI));
+        Match match = matchManager.getMatchOf(player);
+        Vector3f spawnPoint = new Vector3f();
+        if (match.allocateSpawnPoint(LASTeams.getId(team), time.getGameTimeInMs(), spawnPoint)) {
+            player.send(new CharacterTeleportEvent(spawnPoint));
+        }
+        if (!hasStaff(player)) {
+            inventoryManager.giveItem(player, EntityRef.NULL, entityManager.create(LASUtils.MAGIC_STAFF_URI));
+        }
+    }
+
+    /**
+     * Players keep their staff through deaths and team changes, so a teleport only hands out a staff to players
+     * without one. This caps staffs at one per player however often a teleporter is used.
+     */
+    private boolean hasStaff(EntityRef player) {
+        if (staffPrefab == null) {
+            staffPrefab = assetManager.getAsset(LASUtils.MAGIC_STAFF_URI, Prefab.class).orElse(null);
+        }
+        int inventorySize = inventoryManager.getNumSlots(player);
+        for (int slotNumber = 0; slotNumber < inventorySize; slotNumber++) {
+            Prefab prefab = inventoryManager.getItemInSlot(player, slotNumber).getParentPrefab();
+            if (prefab != null && prefab.equals(staffPrefab)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
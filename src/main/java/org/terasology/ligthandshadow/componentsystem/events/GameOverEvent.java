@@ -15,10 +15,13 @@
  */
 package org.terasology.ligthandshadow.componentsystem.events;
 
+import com.google.common.collect.Lists;
 import org.terasology.entitySystem.event.Event;
 import org.terasology.network.BroadcastEvent;
 import org.terasology.network.OwnerEvent;
 
+import java.util.List;
+
 /**
  * Event to indicate clients about GameOver.
  */
@@ -26,12 +29,20 @@ import org.terasology.network.OwnerEvent;
 public class GameOverEvent implements Event {
     public String winningTeam;
     public Boolean hasRestartPermission;
+    /** The leaderboard by kills of the match: player names with their kills and deaths, best first. */
+    public List<String> playerNames = Lists.newArrayList();
+    public List<Integer> kills = Lists.newArrayList();
+    public List<Integer> deaths = Lists.newArrayList();
 
     public GameOverEvent() {
     }
 
-    public GameOverEvent(String winningTeam, Boolean hasRestartPermission) {
+    public GameOverEvent(String winningTeam, Boolean hasRestartPermission, List<String> playerNames,
+                         List<Integer> kills, List<Integer> deaths) {
         this.winningTeam = winningTeam;
         this.hasRestartPermission = hasRestartPermission;
+        this.playerNames = playerNames;
+        this.kills = kills;
+        this.deaths = deaths;
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.componentsystem.events;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.Event;
+
+import java.util.List;
+
+/**
+ * Sent to an inventory owner after {@link org.terasology.ligthandshadow.componentsystem.Loadouts} replaced its whole
+ * inventory, in place of one InventorySlotChangedEvent per slot.
+ * <p>
+ * The removed items still exist while the event is handled and are destroyed afterwards.
+ */
+public class LoadoutResetEvent implements Event {
+    private final List<EntityRef> removedItems;
+
+    public LoadoutResetEvent(List<EntityRef> removedItems) {
+        this.removedItems = removedItems;
+    }
+
+    public List<EntityRef> getRemovedItems() {
+        return removedItems;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.componentsystem.events;
+
+import com.google.common.collect.Lists;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.network.OwnerEvent;
+
+import java.util.List;
+
+/**
+ * Sent to each client at most once per tick with the changes to the match state since the previous update.
+ * A snapshot carries the complete state and is sent to clients that join a running match.
+ * Teams are identified by their id in {@link org.terasology.ligthandshadow.componentsystem.LASTeams}.
+ */
+@OwnerEvent
+public class MatchStateUpdateEvent implements Event {
+    public boolean snapshot;
+
+    /**
+     * Teams whose score changed, parallel to {@link #scores}.
+     */
+    public List<Integer> scoreTeams = Lists.newArrayList();
+    public List<Integer> scores = Lists.newArrayList();
+
+    /**
+     * Players that now carry a flag, parallel to {@link #flagTeams}.
+     */
+    public List<EntityRef> flagCarriers = Lists.newArrayList();
+    public List<Integer> flagTeams = Lists.newArrayList();
+
+    /**
+     * Players that no longer carry a flag.
+     */
+    public List<EntityRef> flagDrops = Lists.newArrayList();
+
+    public MatchStateUpdateEvent() {
+    }
+
+    public MatchStateUpdateEvent(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+}
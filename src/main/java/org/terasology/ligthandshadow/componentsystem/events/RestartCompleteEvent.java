@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 MovingBlocks
+ * Copyright 2019 MovingBlocks
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,22 +13,25 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package org.terasology.ligthandshadow.componentsystem.events;
 
-import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.Event;
-import org.terasology.network.BroadcastEvent;
+import org.terasology.network.OwnerEvent;
 
-@BroadcastEvent
-public class FlagPickupEvent implements Event {
-    public String team;
-    public EntityRef player;
+/**
+ * Event to tell the client that requested a restart that all players of its match have been respawned.
+ */
+@OwnerEvent
+public class RestartCompleteEvent implements Event {
+    public int players;
+    public long durationMs;
 
-    public FlagPickupEvent() {
+    public RestartCompleteEvent() {
     }
 
-    public FlagPickupEvent(EntityRef player, String team) {
-        this.player = player;
-        this.team = team;
+    public RestartCompleteEvent(int players, long durationMs) {
+        this.players = players;
+        this.durationMs = durationMs;
     }
 }
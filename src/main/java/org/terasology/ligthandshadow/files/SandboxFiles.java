@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.utilities.SandboxFileManager;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads and writes LaS files through the engine's {@link SandboxFileManager}, the file API that module code may use.
+ * <p>
+ * Files are kept flat in the engine's sandbox directory, so names must not contain path separators. When the sandbox
+ * is not available, {@link #open()} returns null and the features built on it turn themselves off.
+ */
+public final class SandboxFiles {
+    private static final Logger logger = LoggerFactory.getLogger(SandboxFiles.class);
+
+    private final SandboxFileManager fileManager;
+
+    private SandboxFiles(SandboxFileManager fileManager) {
+        this.fileManager = fileManager;
+    }
+
+    /**
+     * @return access to the sandbox, or null if the engine does not provide it to modules
+     */
+    public static SandboxFiles open() {
+        try {
+            return new SandboxFiles(new SandboxFileManager());
+        } catch (LinkageError | RuntimeException e) {
+            logger.warn("Sandboxed file access is not available, LaS files will not be read or written", e);
+            return null;
+        }
+    }
+
+    /**
+     * Passes the content of a file to the reader. The stream is closed afterwards.
+     *
+     * @throws FileNotFoundException if the file does not exist or cannot be opened
+     * @throws IOException if the reader fails
+     */
+    public void read(String name, StreamReader reader) throws IOException {
+        Outcome outcome = new Outcome();
+        try {
+            fileManager.readFile(name, in -> {
+                outcome.opened = true;
+                try (InputStream stream = in) {
+                    reader.read(stream);
+                } catch (IOException e) {
+                    outcome.failure = e;
+                }
+            });
+        } catch (RuntimeException e) {
+            throw new IOException("Could not read " + name, e);
+        }
+        outcome.check(name);
+    }
+
+    /**
+     * Replaces the content of a file with what the writer writes. The stream is closed afterwards.
+     *
+     * @throws IOException if the file cannot be created or the writer fails
+     */
+    public void write(String name, StreamWriter writer) throws IOException {
+        Outcome outcome = new Outcome();
+        try {
+            fileManager.writeFile(name, out -> {
+                outcome.opened = true;
+                try (OutputStream stream = out) {
+                    writer.write(stream);
+                } catch (IOException e) {
+                    outcome.failure = e;
+                }
+            });
+        } catch (RuntimeException e) {
+            throw new IOException("Could not write " + name, e);
+        }
+        outcome.check(name);
+    }
+
+    @FunctionalInterface
+    public interface StreamReader {
+        void read(InputStream in) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * What happened inside a file manager callback, which cannot throw checked exceptions itself.
+     */
+    private static final class Outcome {
+        private boolean opened;
+        private IOException failure;
+
+        private void check(String name) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            if (!opened) {
+                throw new FileNotFoundException(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One entry of a match journal. Records have a fixed size on disk and a fixed set of fields whose meaning depends on
+ * the type:
+ * <ul>
+ *     <li>{@link #SEED}: {@code team} is the seed source, {@code subject} the seed</li>
+ *     <li>{@link #FLAG_PICKUP}, {@link #FLAG_DROP}, {@link #FLAG_CAPTURE}: {@code subject} is the player and
+ *     {@code team} the team of the flag; a capture also sets {@code value} to the new score of the scoring team</li>
+ *     <li>{@link #FLAG_RETURN}: {@code team} is the team of the flag put back to its base</li>
+ *     <li>{@link #DEATH}: {@code subject} is the player who died, {@code other} the instigator</li>
+ *     <li>{@link #TEAM_CHANGE}: {@code subject} is the player and {@code team} the new team</li>
+ *     <li>{@link #RESTART}: the scores of the arena are reset</li>
+ * </ul>
+ * Players are identified by their entity id. Instances are reused by the journal reader, so copy a record to keep it.
+ */
+public final class JournalRecord {
+    public static final byte SEED = 1;
+    public static final byte FLAG_PICKUP = 2;
+    public static final byte FLAG_DROP = 3;
+    public static final byte FLAG_RETURN = 4;
+    public static final byte FLAG_CAPTURE = 5;
+    public static final byte DEATH = 6;
+    public static final byte TEAM_CHANGE = 7;
+    public static final byte RESTART = 8;
+
+    public static final int SEED_SPAWNER = 0;
+    public static final int SEED_MAGIC_DOME = 1;
+
+    public static final int SIZE = 1 + 8 + 4 + 8 + 8 + 4 + 4;
+
+    public byte type;
+    public long time;
+    public int arena;
+    public long subject;
+    public long other;
+    public int team;
+    public int value;
+
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(type);
+        out.writeLong(time);
+        out.writeInt(arena);
+        out.writeLong(subject);
+        out.writeLong(other);
+        out.writeInt(team);
+        out.writeInt(value);
+    }
+
+    public void read(DataInput in) throws IOException {
+        type = in.readByte();
+        time = in.readLong();
+        arena = in.readInt();
+        subject = in.readLong();
+        other = in.readLong();
+        team = in.readInt();
+        value = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+        return getTypeName(type) + " t=" + time + " arena=" + arena + " subject=" + subject + " other=" + other
+                + " team=" + team + " value=" + value;
+    }
+
+    public static String getTypeName(byte type) {
+        switch (type) {
+            case SEED:
+                return "seed";
+            case FLAG_PICKUP:
+                return "flagPickup";
+            case FLAG_DROP:
+                return "flagDrop";
+            case FLAG_RETURN:
+                return "flagReturn";
+            case FLAG_CAPTURE:
+                return "flagCapture";
+            case DEATH:
+                return "death";
+            case TEAM_CHANGE:
+                return "teamChange";
+            case RESTART:
+                return "restart";
+            default:
+                return "unknown(" + type + ")";
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.journal;
+
+import org.terasology.ligthandshadow.files.SandboxFiles;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads the records of a journal written by {@link MatchJournalWriter}. Reading a segment does not depend on a running
+ * game, so recorded matches can be fed to a {@link MatchReplay} or any other consumer offline.
+ */
+public final class MatchJournalReader {
+    private MatchJournalReader() {
+    }
+
+    /**
+     * Passes every record of a session, segment by segment and in order, to the consumer. Reading stops at the first
+     * missing segment.
+     *
+     * @return the number of records read
+     * @throws IOException if a segment cannot be read or is not a match journal
+     */
+    public static long read(SandboxFiles files, String session, Consumer<JournalRecord> consumer) throws IOException {
+        long[] count = new long[1];
+        for (int segment = 0; ; segment++) {
+            try {
+                files.read(MatchJournalWriter.getSegmentName(session, segment),
+                        in -> count[0] += readSegment(in, consumer));
+            } catch (FileNotFoundException e) {
+                if (segment == 0) {
+                    throw e;
+                }
+                return count[0];
+            }
+        }
+    }
+
+    /**
+     * Passes every record of one segment, in order, to the consumer. The same {@link JournalRecord} instance is reused
+     * for every call. A record cut short at the end of the segment is ignored.
+     *
+     * @return the number of records read
+     * @throws IOException if the stream cannot be read or is not a match journal
+     */
+    public static long readSegment(InputStream stream, Consumer<JournalRecord> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MatchJournalWriter.MAGIC) {
+            throw new IOException("Not a match journal");
+        }
+        short version = in.readShort();
+        if (version != MatchJournalWriter.VERSION) {
+            throw new IOException("Unsupported match journal version " + version);
+        }
+        JournalRecord record = new JournalRecord();
+        long count = 0;
+        while (true) {
+            try {
+                record.read(in);
+            } catch (EOFException e) {
+                return count;
+            }
+            consumer.accept(record);
+            count++;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.ligthandshadow.componentsystem.Match;
+import org.terasology.ligthandshadow.componentsystem.controllers.MatchManager;
+import org.terasology.ligthandshadow.files.SandboxFiles;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.network.NetworkSystem;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Records flag pickups, drops, returns and captures, deaths, team changes, restarts and RNG seeds of the matches on
+ * this server into a binary journal in the engine's sandbox directory, one session of segment files per game.
+ * <p>
+ * Records are collected in memory and handed to the writer's background thread every {@value #FLUSH_INTERVAL_MS} ms
+ * and on shutdown, so the game thread never waits for a file. Recording is a no-op on clients and where sandboxed file
+ * access is unavailable. All record methods must be called from the game thread.
+ *
+ * @see MatchJournalReader
+ * @see MatchReplay
+ */
+@RegisterSystem
+@Share(MatchJournalSystem.class)
+public class MatchJournalSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final LatencyHistogram UPDATE_LATENCY = LASMetrics.handler("MatchJournalSystem.update");
+
+    private static final String SESSION_PREFIX = "las-journal-";
+    private static final long FLUSH_INTERVAL_MS = 10000;
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchJournalSystem.class);
+
+    @In
+    private Time time;
+    @In
+    private NetworkSystem networkSystem;
+    @In
+    private MatchManager matchManager;
+
+    private SandboxFiles files;
+    private MatchJournalWriter writer;
+    private long lastFlush;
+
+    @Override
+    public void initialise() {
+        if (!networkSystem.getMode().isAuthority()) {
+            return;
+        }
+        files = SandboxFiles.open();
+        if (files == null) {
+            logger.warn("Matches will not be recorded");
+            return;
+        }
+        String session = SESSION_PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        writer = new MatchJournalWriter(files, session);
+        lastFlush = time.getRealTimeInMs();
+    }
+
+    @Override
+    public void update(float delta) {
+        LASMetrics.time(UPDATE_LATENCY, () -> {
+            if (writer != null && time.getRealTimeInMs() - lastFlush >= FLUSH_INTERVAL_MS) {
+                writer.flush();
+                lastFlush = time.getRealTimeInMs();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        if (writer != null) {
+            writer.close();
+            if (writer.getDropped() > 0) {
+                logger.warn("Match journal {} dropped {} records", writer.getSession(), writer.getDropped());
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * @return the number of records written to the journal of this session so far
+     */
+    public long getWrittenCount() {
+        return writer != null ? writer.getWritten() : 0;
+    }
+
+    public void recordSeed(int source, long seed) {
+        record(JournalRecord.SEED, MatchManager.DEFAULT_ARENA, seed, 0, source, 0);
+    }
+
+    public void recordFlagPickup(EntityRef player, int flagTeam) {
+        record(JournalRecord.FLAG_PICKUP, getArena(player), player.getId(), 0, flagTeam, 0);
+    }
+
+    public void recordFlagDrop(EntityRef player, int flagTeam) {
+        record(JournalRecord.FLAG_DROP, getArena(player), player.getId(), 0, flagTeam, 0);
+    }
+
+    public void recordFlagReturn(Match match, int flagTeam) {
+        record(JournalRecord.FLAG_RETURN, match.getArena(), 0, 0, flagTeam, 0);
+    }
+
+    /**
+     * @param score the new score of the team that captured the flag
+     */
+    public void recordFlagCapture(EntityRef player, Match match, int flagTeam, int score) {
+        record(JournalRecord.FLAG_CAPTURE, match.getArena(), player.getId(), 0, flagTeam, score);
+    }
+
+    public void recordDeath(EntityRef player, EntityRef instigator) {
+        record(JournalRecord.DEATH, getArena(player), player.getId(), instigator.getId(), 0, 0);
+    }
+
+    public void recordTeamChange(EntityRef player, int team) {
+        record(JournalRecord.TEAM_CHANGE, getArena(player), player.getId(), 0, team, 0);
+    }
+
+    public void recordRestart(Match match) {
+        record(JournalRecord.RESTART, match.getArena(), 0, 0, 0, 0);
+    }
+
+    @Command(shortDescription = "Show the LaS match journal status",
+            helpText = "Prints the session the matches are recorded to and how many records were written, are "
+                    + "pending or were dropped",
+            runOnServer = true)
+    public String matchJournal() {
+        if (writer == null) {
+            return "Matches are not being recorded.";
+        }
+        return "Recording session " + writer.getSession() + ": " + writer.getWritten() + " records written in "
+                + writer.getSegments() + " segments, " + writer.getPending() + " pending, " + writer.getDropped()
+                + " dropped.";
+    }
+
+    @Command(shortDescription = "Replay a LaS match journal",
+            helpText = "Rebuilds the scores and flag states recorded in a journal session of the sandbox directory "
+                    + "and reports them with the replay throughput. Without a session name the journal of this "
+                    + "session is replayed as far as it has been written.",
+            runOnServer = true)
+    public String replayJournal(@CommandParam(value = "session", required = false) String session) {
+        if (files == null) {
+            return "Match journals are not available.";
+        }
+        if (session == null) {
+            if (writer == null) {
+                return "No session given and matches are not being recorded.";
+            }
+            session = writer.getSession();
+        }
+        MatchReplay replay = new MatchReplay();
+        long start = System.nanoTime();
+        try {
+            MatchJournalReader.read(files, session, replay);
+        } catch (IOException e) {
+            return "Could not replay " + session + ": " + e.getMessage();
+        }
+        long nanos = Math.max(System.nanoTime() - start, 1);
+        return replay.report() + String.format("Replayed in %.2f ms (%.0f records/s)",
+                nanos / 1e6, replay.getRecordCount() * 1e9 / nanos);
+    }
+
+    private void record(byte type, int arena, long subject, long other, int team, int value) {
+        if (writer != null) {
+            writer.record(type, time.getGameTimeInMs(), arena, subject, other, team, value);
+        }
+    }
+
+    private int getArena(EntityRef entity) {
+        return matchManager.getMatchOf(entity).getArena();
+    }
+}
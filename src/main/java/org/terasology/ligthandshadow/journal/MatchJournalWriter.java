@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.ligthandshadow.files.SandboxFiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the journal of a game session as a sequence of segment files in the sandbox.
+ * <p>
+ * Recording only encodes the record into memory and never touches a file. {@link #flush()} appends the records
+ * gathered since the previous flush to the open segment and hands the segment to a background thread, which rewrites
+ * its file, named {@code <session>-<n>.lasj}. Once a segment holds {@value #SEGMENT_BYTES} bytes of records the next
+ * flush starts a new one, so a session has a few large files and no write costs more than one segment. Every segment
+ * starts with {@link #MAGIC} and {@link #VERSION}, followed by {@link JournalRecord#SIZE} byte records.
+ * <p>
+ * A failed write is retried with the next flush of the same segment. Records of a segment whose last write failed are
+ * counted as dropped. Where no background thread can be started, segments are written on the calling thread.
+ * <p>
+ * Not thread safe, apart from the statistics getters.
+ *
+ * @see MatchJournalReader
+ */
+public class MatchJournalWriter {
+    public static final int MAGIC = 0x4C41534A;
+    public static final short VERSION = 1;
+    public static final String EXTENSION = ".lasj";
+
+    /**
+     * The size of the records in a segment after which the next flush starts a new segment.
+     */
+    public static final int SEGMENT_BYTES = 1 << 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchJournalWriter.class);
+
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final SandboxFiles files;
+    private final String session;
+    private final JournalRecord record = new JournalRecord();
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private ExecutorService executor;
+
+    private int pendingCount;
+    private final List<byte[]> segmentChunks = new ArrayList<>();
+    private int segmentBytes;
+    private int segmentRecords;
+    private int segment = -1;
+
+    /* Only touched by the thread that writes the segments. */
+    private int writingSegment = -1;
+    private int handedToSegment;
+    private int writtenToSegment;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param session the name the segment files of this session start with
+     */
+    public MatchJournalWriter(SandboxFiles files, String session) {
+        this.files = files;
+        this.session = session;
+        try {
+            this.executor = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "LaS match journal");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } catch (SecurityException | LinkageError e) {
+            logger.warn("Match journal segments will be written on the game thread", e);
+        }
+    }
+
+    /**
+     * @return the name of a segment file of a session
+     */
+    public static String getSegmentName(String session, int segment) {
+        return session + "-" + segment + EXTENSION;
+    }
+
+    public void record(byte type, long time, int arena, long subject, long other, int team, int value) {
+        record.type = type;
+        record.time = time;
+        record.arena = arena;
+        record.subject = subject;
+        record.other = other;
+        record.team = team;
+        record.value = value;
+        try {
+            record.write(pendingOut);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pendingCount++;
+    }
+
+    /**
+     * Appends the pending records to the open segment and schedules the segment to be written.
+     */
+    public void flush() {
+        if (pendingCount == 0) {
+            return;
+        }
+        if (segment < 0 || segmentBytes >= SEGMENT_BYTES) {
+            segment++;
+            segmentChunks.clear();
+            segmentBytes = 0;
+            segmentRecords = 0;
+        }
+        segmentChunks.add(pending.toByteArray());
+        segmentBytes += pending.size();
+        segmentRecords += pendingCount;
+        pending.reset();
+        pendingCount = 0;
+
+        int target = segment;
+        int records = segmentRecords;
+        List<byte[]> chunks = new ArrayList<>(segmentChunks);
+        submit(() -> write(target, chunks, records));
+    }
+
+    /**
+     * Flushes the pending records and waits for the background thread to write them.
+     */
+    public void close() {
+        flush();
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Match journal {} is still being written", session);
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        dropped.addAndGet(handedToSegment - writtenToSegment);
+        handedToSegment = writtenToSegment;
+    }
+
+    public String getSession() {
+        return session;
+    }
+
+    public int getSegments() {
+        return segment + 1;
+    }
+
+    /**
+     * @return the number of records that are in a written segment file
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    public int getPending() {
+        return pendingCount;
+    }
+
+    /**
+     * @return the number of records lost because the last write of their segment failed
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void submit(Runnable task) {
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (SecurityException | RejectedExecutionException e) {
+                logger.warn("Match journal segments will be written on the game thread", e);
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+        task.run();
+    }
+
+    private void write(int target, List<byte[]> chunks, int records) {
+        if (target != writingSegment) {
+            dropped.addAndGet(handedToSegment - writtenToSegment);
+            writingSegment = target;
+            writtenToSegment = 0;
+        }
+        handedToSegment = records;
+        String name = getSegmentName(session, target);
+        try {
+            files.write(name, out -> {
+                DataOutputStream header = new DataOutputStream(out);
+                header.writeInt(MAGIC);
+                header.writeShort(VERSION);
+                for (byte[] chunk : chunks) {
+                    out.write(chunk);
+                }
+            });
+            written.addAndGet(records - writtenToSegment);
+            writtenToSegment = records;
+        } catch (IOException e) {
+            logger.warn("Failed to write match journal segment {}, it is retried with the next flush", name, e);
+        }
+    }
+}
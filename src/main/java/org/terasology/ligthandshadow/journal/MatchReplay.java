@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.journal;
+
+import com.google.common.collect.Maps;
+import org.terasology.ligthandshadow.componentsystem.LASTeams;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds the scores and flag states of every arena, the kills and deaths of every player and the recorded RNG
+ * seeds from the records of a match journal.
+ */
+public class MatchReplay implements Consumer<JournalRecord> {
+    public static final int FLAG_AT_BASE = 0;
+    public static final int FLAG_CARRIED = 1;
+    public static final int FLAG_DROPPED = 2;
+
+    private final SortedMap<Integer, ArenaState> arenas = Maps.newTreeMap();
+    private final Map<Long, int[]> killsAndDeaths = Maps.newHashMap();
+    private final Map<Integer, Long> seeds = Maps.newTreeMap();
+    private long records;
+    private long lastTime;
+
+    @Override
+    public void accept(JournalRecord record) {
+        records++;
+        lastTime = record.time;
+        if (record.type == JournalRecord.SEED) {
+            seeds.put(record.team, record.subject);
+            return;
+        }
+        ArenaState arena = arenas.computeIfAbsent(record.arena, id -> new ArenaState());
+        boolean isTeam = LASTeams.isTeam(record.team);
+        switch (record.type) {
+            case JournalRecord.FLAG_PICKUP:
+                if (isTeam) {
+                    arena.flagStates[record.team] = FLAG_CARRIED;
+                    arena.flagCarriers[record.team] = record.subject;
+                }
+                break;
+            case JournalRecord.FLAG_DROP:
+                if (isTeam) {
+                    arena.flagStates[record.team] = FLAG_DROPPED;
+                    arena.flagCarriers[record.team] = 0;
+                }
+                break;
+            case JournalRecord.FLAG_RETURN:
+                if (isTeam) {
+                    arena.flagStates[record.team] = FLAG_AT_BASE;
+                    arena.flagCarriers[record.team] = 0;
+                }
+                break;
+            case JournalRecord.FLAG_CAPTURE:
+                if (isTeam) {
+                    arena.flagStates[record.team] = FLAG_AT_BASE;
+                    arena.flagCarriers[record.team] = 0;
+                    int scoringTeam = LASTeams.getOpposition(record.team);
+                    if (LASTeams.isTeam(scoringTeam)) {
+                        arena.scores[scoringTeam] = record.value;
+                    }
+                }
+                arena.captures++;
+                break;
+            case JournalRecord.DEATH:
+                killsAndDeaths.computeIfAbsent(record.subject, id -> new int[2])[1]++;
+                if (record.other != 0 && record.other != record.subject) {
+                    killsAndDeaths.computeIfAbsent(record.other, id -> new int[2])[0]++;
+                }
+                break;
+            case JournalRecord.RESTART:
+                Arrays.fill(arena.scores, 0);
+                break;
+            default:
+                break;
+        }
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * @return the replayed score of a team in an arena, 0 if nothing was recorded for it
+     */
+    public int getScore(int arena, int team) {
+        ArenaState state = arenas.get(arena);
+        return state != null && LASTeams.isTeam(team) ? state.scores[team] : 0;
+    }
+
+    /**
+     * @return one of {@link #FLAG_AT_BASE}, {@link #FLAG_CARRIED} and {@link #FLAG_DROPPED}
+     */
+    public int getFlagState(int arena, int team) {
+        ArenaState state = arenas.get(arena);
+        return state != null && LASTeams.isTeam(team) ? state.flagStates[team] : FLAG_AT_BASE;
+    }
+
+    /**
+     * @return the entity id of the player carrying the flag, 0 if it is not carried
+     */
+    public long getFlagCarrier(int arena, int team) {
+        ArenaState state = arenas.get(arena);
+        return state != null && LASTeams.isTeam(team) ? state.flagCarriers[team] : 0;
+    }
+
+    /**
+     * @return the recorded seed of a {@link JournalRecord} seed source, or null
+     */
+    public Long getSeed(int source) {
+        return seeds.get(source);
+    }
+
+    public String report() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(records).append(" records up to game time ").append(lastTime).append(" ms\n");
+        for (Map.Entry<Integer, Long> seed : seeds.entrySet()) {
+            builder.append("Seed ").append(seed.getKey() == JournalRecord.SEED_SPAWNER ? "spawner" : "magic dome")
+                    .append(": ").append(seed.getValue()).append('\n');
+        }
+        for (Map.Entry<Integer, ArenaState> entry : arenas.entrySet()) {
+            ArenaState arena = entry.getValue();
+            builder.append("Arena ").append(entry.getKey()).append(": ").append(arena.captures).append(" captures\n");
+            for (int team = 0; team < LASTeams.COUNT; team++) {
+                if (LASTeams.getFlagLocation(team) == null) {
+                    continue;
+                }
+                builder.append("  ").append(LASTeams.getName(team)).append(": score ").append(arena.scores[team])
+                        .append(", flag ");
+                switch (arena.flagStates[team]) {
+                    case FLAG_CARRIED:
+                        builder.append("carried by ").append(arena.flagCarriers[team]);
+                        break;
+                    case FLAG_DROPPED:
+                        builder.append("dropped");
+                        break;
+                    default:
+                        builder.append("at base");
+                        break;
+                }
+                builder.append('\n');
+            }
+        }
+        for (Map.Entry<Long, int[]> player : killsAndDeaths.entrySet()) {
+            builder.append("Player ").append(player.getKey()).append(": ").append(player.getValue()[0])
+                    .append(" kills, ").append(player.getValue()[1]).append(" deaths\n");
+        }
+        return builder.toString();
+    }
+
+    private static final class ArenaState {
+        private final int[] scores = new int[LASTeams.COUNT];
+        private final int[] flagStates = new int[LASTeams.COUNT];
+        private final long[] flagCarriers = new long[LASTeams.COUNT];
+        private int captures;
+    }
+}
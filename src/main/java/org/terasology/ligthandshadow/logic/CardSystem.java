@@ -19,13 +19,17 @@ package org.terasology.ligthandshadow.logic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.audio.AudioManager;
-import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.prefab.PrefabManager;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.ligthandshadow.pool.EntityPool;
+import org.terasology.ligthandshadow.scheduler.LASScheduler;
+import org.terasology.ligthandshadow.scheduler.ScheduledActionEvent;
 import org.terasology.logic.common.ActivateEvent;
 import org.terasology.logic.health.event.OnDamagedEvent;
 import org.terasology.logic.inventory.ItemComponent;
@@ -47,7 +51,17 @@ import org.terasology.world.block.regions.BlockRegionComponent;
 
 @RegisterSystem
 public class CardSystem extends BaseComponentSystem {
+    private static final LatencyHistogram PLACE_CARD_LATENCY = LASMetrics.handler("CardSystem.placeCard");
+    private static final LatencyHistogram ON_DAMAGED_LATENCY = LASMetrics.handler("CardSystem.onDamaged");
+    private static final LatencyHistogram RELEASE_CARD_PARTICLE_LATENCY =
+            LASMetrics.handler("CardSystem.releaseCardParticle");
+
     private static final Logger logger = LoggerFactory.getLogger(CardSystem.class);
+    private static final String CARD_PARTICLE_URI = "LightAndShadowResources:cardParticleEffect";
+    private static final String RELEASE_CARD_PARTICLE = "las:releaseCardParticle";
+    private static final int CARD_PARTICLE_SPAWNS = 12;
+    private static final long CARD_PARTICLE_MILLIS = 2000;
+    private static final int CARD_PARTICLE_POOL_CAPACITY = 16;
 
     @In
     private WorldProvider worldProvider;
@@ -61,90 +75,123 @@ public class CardSystem extends BaseComponentSystem {
     private BlockEntityRegistry blockEntityRegistry;
     @In
     private PrefabManager prefabManager;
+    @In
+    private LASScheduler scheduler;
+
+    private EntityPool cardParticles;
 
     @Override
     public void initialise() {
+        cardParticles = new EntityPool(entityManager, CARD_PARTICLE_URI, CARD_PARTICLE_POOL_CAPACITY, particle -> {
+            ParticleEmitterComponent emitter = particle.getComponent(ParticleEmitterComponent.class);
+            emitter.particleSpawnsLeft = 0;
+            particle.saveComponent(emitter);
+        });
     }
 
     @Override
     public void shutdown() {
+        cardParticles.clear();
     }
 
     @ReceiveEvent(components = {CardComponent.class, ItemComponent.class})
     public void placeCard(ActivateEvent event, EntityRef entity) {
-        CardComponent card = entity.getComponent(CardComponent.class);
-        BlockComponent targetBlockComponent = event.getTarget().getComponent(BlockComponent.class);
-        if (targetBlockComponent == null) {
-            event.consume();
-            return;
-        }
-
-        Vector3f horizontalDir = new Vector3f(event.getDirection());
-        horizontalDir.y = 0;
-        Side facingDir = Side.inDirection(horizontalDir);
-        if (!facingDir.isHorizontal()) {
-            event.consume();
-            return;
-        }
-
-        Vector3f offset = new Vector3f(event.getHitPosition());
-        offset.sub(targetBlockComponent.getPosition().toVector3f());
-        Side offsetDir = Side.inDirection(offset);
-
-        Vector3i primePos = new Vector3i(targetBlockComponent.getPosition());
-        primePos.add(offsetDir.getVector3i());
-
-        Block primeBlock = worldProvider.getBlock(primePos);
-        if (!primeBlock.isReplacementAllowed()) {
-            event.consume();
-            return;
-        }
-
-        Block belowBlock = worldProvider.getBlock(primePos.x, primePos.y - 1, primePos.z);
-        Block aboveBlock = worldProvider.getBlock(primePos.x, primePos.y + 1, primePos.z);
-
-        // Determine top and bottom blocks
-        Vector3i bottomBlockPos;
-        Block bottomBlock;
-        Vector3i topBlockPos;
-        Block topBlock;
-        if (belowBlock.isReplacementAllowed()) {
-            bottomBlockPos = new Vector3i(primePos.x, primePos.y - 1, primePos.z);
-            bottomBlock = belowBlock;
-            topBlockPos = primePos;
-            topBlock = primeBlock;
-        } else if (aboveBlock.isReplacementAllowed()) {
-            bottomBlockPos = primePos;
-            bottomBlock = primeBlock;
-            topBlockPos = new Vector3i(primePos.x, primePos.y + 1, primePos.z);
-            topBlock = aboveBlock;
-        } else {
-            event.consume();
-            return;
-        }
-
-        worldProvider.setBlock(bottomBlockPos, card.bottomBlockFamily.getBlockForPlacement(bottomBlockPos, facingDir, Side.TOP));
-        worldProvider.setBlock(topBlockPos, card.topBlockFamily.getBlockForPlacement(topBlockPos, facingDir, Side.TOP));
-
-        EntityRef cardEntity = entityManager.create(card.cardBlockPrefab);
-        entity.removeComponent(MeshComponent.class);
-        cardEntity.addComponent(new BlockRegionComponent(Region3i.createBounded(bottomBlockPos, topBlockPos)));
-        Vector3f cardCenter = bottomBlockPos.toVector3f();
-        cardCenter.y += 0.5f;
-        cardEntity.saveComponent(new LocationComponent(cardCenter));
-        CardComponent newCardComponent = cardEntity.getComponent(CardComponent.class);
-        cardEntity.saveComponent(newCardComponent);
-        cardEntity.removeComponent(ItemComponent.class);
-
-        audioManager.playSound(Assets.getSound("engine:PlaceBlock").get(), 0.5f);
+        LASMetrics.time(PLACE_CARD_LATENCY, () -> {
+            CardComponent card = entity.getComponent(CardComponent.class);
+            BlockComponent targetBlockComponent = event.getTarget().getComponent(BlockComponent.class);
+            if (targetBlockComponent == null) {
+                event.consume();
+                return;
+            }
+
+            Vector3f horizontalDir = new Vector3f(event.getDirection());
+            horizontalDir.y = 0;
+            Side facingDir = Side.inDirection(horizontalDir);
+            if (!facingDir.isHorizontal()) {
+                event.consume();
+                return;
+            }
+
+            Vector3f offset = new Vector3f(event.getHitPosition());
+            offset.sub(targetBlockComponent.getPosition().toVector3f());
+            Side offsetDir = Side.inDirection(offset);
+
+            Vector3i primePos = new Vector3i(targetBlockComponent.getPosition());
+            primePos.add(offsetDir.getVector3i());
+
+            Block primeBlock = worldProvider.getBlock(primePos);
+            if (!primeBlock.isReplacementAllowed()) {
+                event.consume();
+                return;
+            }
+
+            Block belowBlock = worldProvider.getBlock(primePos.x, primePos.y - 1, primePos.z);
+            Block aboveBlock = worldProvider.getBlock(primePos.x, primePos.y + 1, primePos.z);
+
+            // Determine top and bottom blocks
+            Vector3i bottomBlockPos;
+            Block bottomBlock;
+            Vector3i topBlockPos;
+            Block topBlock;
+            if (belowBlock.isReplacementAllowed()) {
+                bottomBlockPos = new Vector3i(primePos.x, primePos.y - 1, primePos.z);
+                bottomBlock = belowBlock;
+                topBlockPos = primePos;
+                topBlock = primeBlock;
+            } else if (aboveBlock.isReplacementAllowed()) {
+                bottomBlockPos = primePos;
+                bottomBlock = primeBlock;
+                topBlockPos = new Vector3i(primePos.x, primePos.y + 1, primePos.z);
+                topBlock = aboveBlock;
+            } else {
+                event.consume();
+                return;
+            }
+
+            worldProvider.setBlock(bottomBlockPos,
+                    card.bottomBlockFamily.getBlockForPlacement(bottomBlockPos, facingDir, Side.TOP));
+            worldProvider.setBlock(topBlockPos,
+                    card.topBlockFamily.getBlockForPlacement(topBlockPos, facingDir, Side.TOP));
+
+            EntityRef cardEntity = entityManager.create(card.cardBlockPrefab);
+            entity.removeComponent(MeshComponent.class);
+            cardEntity.addComponent(new BlockRegionComponent(Region3i.createBounded(bottomBlockPos, topBlockPos)));
+            Vector3f cardCenter = bottomBlockPos.toVector3f();
+            cardCenter.y += 0.5f;
+            cardEntity.saveComponent(new LocationComponent(cardCenter));
+            CardComponent newCardComponent = cardEntity.getComponent(CardComponent.class);
+            cardEntity.saveComponent(newCardComponent);
+            cardEntity.removeComponent(ItemComponent.class);
+
+            audioManager.playSound(Assets.getSound("engine:PlaceBlock").get(), 0.5f);
+        });
     }
 
+    /**
+     * Plays a burst of particles on a damaged card. The emitter is taken from a pool and returned to it once the
+     * burst is over, see {@link #releaseCardParticle}.
+     */
     @ReceiveEvent(components = {CardComponent.class, LocationComponent.class})
     public void onDamaged(OnDamagedEvent event, EntityRef entity) {
-        EntityBuilder builder = entityManager.newBuilder("LightAndShadowResources:cardParticleEffect");
-        builder.getComponent(ParticleEmitterComponent.class).particleSpawnsLeft = 12;
-        builder.getComponent(ParticleEmitterComponent.class).destroyEntityWhenDead = true;
-        builder.saveComponent(entity.getComponent(LocationComponent.class));
-        builder.build();
+        LASMetrics.time(ON_DAMAGED_LATENCY, () -> {
+            EntityRef particle = cardParticles.acquire();
+            LocationComponent location = particle.getComponent(LocationComponent.class);
+            location.setWorldPosition(entity.getComponent(LocationComponent.class).getWorldPosition());
+            particle.saveComponent(location);
+            ParticleEmitterComponent emitter = particle.getComponent(ParticleEmitterComponent.class);
+            emitter.particleSpawnsLeft = CARD_PARTICLE_SPAWNS;
+            emitter.destroyEntityWhenDead = false;
+            particle.saveComponent(emitter);
+            scheduler.schedule(particle, RELEASE_CARD_PARTICLE, CARD_PARTICLE_MILLIS);
+        });
+    }
+
+    @ReceiveEvent(components = {ParticleEmitterComponent.class})
+    public void releaseCardParticle(ScheduledActionEvent event, EntityRef particle) {
+        LASMetrics.time(RELEASE_CARD_PARTICLE_LATENCY, () -> {
+            if (event.getActionId().equals(RELEASE_CARD_PARTICLE)) {
+                cardParticles.release(particle);
+            }
+        });
     }
 }
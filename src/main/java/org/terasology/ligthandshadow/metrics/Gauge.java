@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value sampled when the metrics are read. The supplier may be called from the thread serving the metrics
+ * endpoint, so it should only read a field and tolerate a slightly stale value.
+ */
+public class Gauge {
+    private final String name;
+    private final String help;
+    private final LongSupplier supplier;
+
+    Gauge(String name, String help, LongSupplier supplier) {
+        this.name = name;
+        this.help = help;
+        this.supplier = supplier;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public long get() {
+        return supplier.getAsLong();
+    }
+}
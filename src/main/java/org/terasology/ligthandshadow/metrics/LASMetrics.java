@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.metrics;
+
+import com.google.common.collect.Maps;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters, gauges and handler latency histograms of the LaS gameplay systems.
+ * <p>
+ * Metrics are static so that systems can keep them in constants and record without a lookup. Every handler latency
+ * is exported as one series of the {@value #HANDLER_METRIC} summary, labelled with the handler name; its count is the
+ * event rate of the handler. Handlers wrap their body in {@link #time(LatencyHistogram, Runnable)}. See
+ * {@link MetricsSystem} for the console command and the local HTTP endpoint.
+ */
+public final class LASMetrics {
+    public static final String HANDLER_METRIC = "las_handler_duration_seconds";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private static final ConcurrentMap<String, LatencyHistogram> HANDLERS = Maps.newConcurrentMap();
+    private static final ConcurrentMap<String, Counter> COUNTERS = Maps.newConcurrentMap();
+    private static final ConcurrentMap<String, Gauge> GAUGES = Maps.newConcurrentMap();
+
+    private LASMetrics() {
+    }
+
+    /**
+     * @param name the handler, as {@code SimpleClassName.method}
+     * @return the latency histogram of that handler, created on first use
+     */
+    public static LatencyHistogram handler(String name) {
+        return HANDLERS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Runs an event handler or update and records how long it took, also when it throws.
+     */
+    public static void time(LatencyHistogram histogram, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            histogram.recordSince(start);
+        }
+    }
+
+    /**
+     * @param name a Prometheus metric name ending in {@code _total}
+     * @return the counter with that name, created on first use
+     */
+    public static Counter counter(String name, String help) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter(key, help));
+    }
+
+    /**
+     * Registers a gauge, replacing any previous one with the same name.
+     */
+    public static void gauge(String name, String help, LongSupplier supplier) {
+        GAUGES.put(name, new Gauge(name, help, supplier));
+    }
+
+    public static void removeGauge(String name) {
+        GAUGES.remove(name);
+    }
+
+    /**
+     * Clears all counters and histograms. Gauges are sampled and have nothing to reset.
+     */
+    public static void reset() {
+        HANDLERS.values().forEach(LatencyHistogram::reset);
+        COUNTERS.values().forEach(Counter::reset);
+    }
+
+    /**
+     * @return a table of all handlers, slowest total first, followed by the counters and gauges
+     */
+    public static String report() {
+        List<LatencyHistogram> handlers = new ArrayList<>(HANDLERS.values());
+        handlers.sort(Comparator.comparingLong(LatencyHistogram::getTotalNanos).reversed());
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.ROOT, "%-44s %10s %12s %10s %10s %10s%n",
+                "handler", "calls", "total ms", "p50 us", "p99 us", "max us"));
+        for (LatencyHistogram handler : handlers) {
+            if (handler.getCount() == 0) {
+                continue;
+            }
+            builder.append(String.format(Locale.ROOT, "%-44s %10d %12.1f %10.1f %10.1f %10.1f%n",
+                    handler.getName(),
+                    handler.getCount(),
+                    handler.getTotalNanos() / 1e6,
+                    handler.getQuantileNanos(0.5) / 1e3,
+                    handler.getQuantileNanos(0.99) / 1e3,
+                    handler.getMaxNanos() / 1e3));
+        }
+        for (Counter counter : sorted(COUNTERS.values(), Counter::getName)) {
+            builder.append(String.format(Locale.ROOT, "%-44s %10d%n", counter.getName(), counter.get()));
+        }
+        for (Gauge gauge : sorted(GAUGES.values(), Gauge::getName)) {
+            builder.append(String.format(Locale.ROOT, "%-44s %10d%n", gauge.getName(), gauge.get()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return all metrics in the Prometheus text exposition format
+     */
+    public static String exposition() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("# HELP ").append(HANDLER_METRIC).append(" Duration of LaS event handlers and updates.\n");
+        builder.append("# TYPE ").append(HANDLER_METRIC).append(" summary\n");
+        for (LatencyHistogram handler : sorted(HANDLERS.values(), LatencyHistogram::getName)) {
+            String label = "handler=\"" + handler.getName() + "\"";
+            for (double quantile : QUANTILES) {
+                builder.append(HANDLER_METRIC).append('{').append(label).append(",quantile=\"").append(quantile)
+                        .append("\"} ").append(handler.getQuantileNanos(quantile) / 1e9).append('\n');
+            }
+            builder.append(HANDLER_METRIC).append("_sum{").append(label).append("} ")
+                    .append(handler.getTotalNanos() / 1e9).append('\n');
+            builder.append(HANDLER_METRIC).append("_count{").append(label).append("} ")
+                    .append(handler.getCount()).append('\n');
+        }
+        for (Counter counter : sorted(COUNTERS.values(), Counter::getName)) {
+            appendSample(builder, counter.getName(), counter.getHelp(), "counter", counter.get());
+        }
+        for (Gauge gauge : sorted(GAUGES.values(), Gauge::getName)) {
+            appendSample(builder, gauge.getName(), gauge.getHelp(), "gauge", gauge.get());
+        }
+        return builder.toString();
+    }
+
+    private static void appendSample(StringBuilder builder, String name, String help, String type, long value) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static <T> List<T> sorted(Iterable<T> metrics, Function<T, String> name) {
+        List<T> result = new ArrayList<>();
+        metrics.forEach(result::add);
+        result.sort(Comparator.comparing(name));
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.ligthandshadow.journal.MatchJournalSystem;
+import org.terasology.ligthandshadow.scheduler.LASScheduler;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.registry.In;
+
+import java.io.IOException;
+
+/**
+ * Registers the LaS gauges and exposes {@link LASMetrics} through console commands and an optional local HTTP
+ * endpoint in the Prometheus text format.
+ * <p>
+ * The endpoint relies on the JDK's HTTP server and on opening a socket, which the module sandbox may forbid. If it
+ * does, the endpoint is reported as unavailable and the console commands keep working.
+ */
+@RegisterSystem
+public class MetricsSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsSystem.class);
+
+    private static final String SCHEDULED_ACTIONS_GAUGE = "las_scheduled_actions";
+    private static final String JOURNAL_RECORDS_GAUGE = "las_journal_records_written";
+
+    @In
+    private LASScheduler scheduler;
+    @In
+    private MatchJournalSystem matchJournal;
+
+    private MetricsEndpoint endpoint;
+    private boolean endpointUnavailable;
+
+    @Override
+    public void postBegin() {
+        LASMetrics.gauge(SCHEDULED_ACTIONS_GAUGE, "Timed LaS actions waiting in the scheduler.",
+                scheduler::getPendingCount);
+        LASMetrics.gauge(JOURNAL_RECORDS_GAUGE, "Records written to the match journal of this session.",
+                matchJournal::getWrittenCount);
+    }
+
+    @Override
+    public void shutdown() {
+        stopEndpoint();
+        LASMetrics.removeGauge(SCHEDULED_ACTIONS_GAUGE);
+        LASMetrics.removeGauge(JOURNAL_RECORDS_GAUGE);
+    }
+
+    @Command(shortDescription = "Show LaS gameplay metrics",
+            helpText = "No argument prints handler latencies, counters and gauges, prometheus prints them in the "
+                    + "Prometheus text format and reset clears the counters and latencies",
+            runOnServer = true)
+    public String lasMetrics(@CommandParam(value = "action", required = false) String action) {
+        if (action == null) {
+            return LASMetrics.report();
+        }
+        switch (action) {
+            case "prometheus":
+                return LASMetrics.exposition();
+            case "reset":
+                LASMetrics.reset();
+                return "LaS metrics reset.";
+            default:
+                return "Unknown action '" + action + "', expected prometheus or reset.";
+        }
+    }
+
+    @Command(shortDescription = "Serve LaS metrics over HTTP",
+            helpText = "Serves the LaS metrics in the Prometheus text format at http://localhost:<port>"
+                    + MetricsEndpoint.PATH + ", or stops serving them with off. Only local connections are accepted.",
+            runOnServer = true)
+    public String lasMetricsEndpoint(@CommandParam("port|off") String port) {
+        stopEndpoint();
+        if ("off".equals(port)) {
+            return "LaS metrics endpoint stopped.";
+        }
+        if (endpointUnavailable) {
+            return "The metrics endpoint is not available in this environment, use lasMetrics prometheus instead.";
+        }
+        int portNumber;
+        try {
+            portNumber = Integer.parseInt(port);
+        } catch (NumberFormatException e) {
+            return "Expected a port number or off, got '" + port + "'.";
+        }
+        try {
+            endpoint = new MetricsEndpoint(portNumber);
+        } catch (SecurityException | LinkageError e) {
+            logger.warn("The LaS metrics endpoint is not permitted in this environment", e);
+            endpointUnavailable = true;
+            return "The metrics endpoint is not available in this environment, use lasMetrics prometheus instead.";
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not start the LaS metrics endpoint on port {}", portNumber, e);
+            return "Could not start the metrics endpoint: " + e;
+        }
+        return "Serving LaS metrics at http://localhost:" + endpoint.getPort() + MetricsEndpoint.PATH;
+    }
+
+    private void stopEndpoint() {
+        if (endpoint != null) {
+            try {
+                endpoint.stop();
+            } catch (RuntimeException | LinkageError e) {
+                logger.warn("Failed to stop the LaS metrics endpoint", e);
+            }
+            endpoint = null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.pool;
+
+import com.google.common.collect.Queues;
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.ligthandshadow.metrics.Counter;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Recycles short-lived entities of a single prefab, such as particle emitters, instead of destroying and recreating
+ * them.
+ * <p>
+ * Released entities are reset and kept idle until they are acquired again. At most {@code capacity} entities are kept
+ * idle; anything released beyond that is destroyed. Pooled entities are not persisted.
+ */
+public class EntityPool {
+    private static final Counter CREATED =
+            LASMetrics.counter("las_pooled_entities_created_total", "Entities created because their pool was empty.");
+    private static final Counter REUSED =
+            LASMetrics.counter("las_pooled_entities_reused_total", "Entities taken from a pool instead of created.");
+
+    private final EntityManager entityManager;
+    private final String prefab;
+    private final int capacity;
+    private final Consumer<EntityRef> reset;
+    private final Deque<EntityRef> idle = Queues.newArrayDeque();
+
+    /**
+     * @param capacity the maximum number of idle entities kept
+     * @param reset    puts a released entity back into a neutral state, e.g. stops its emitter
+     */
+    public EntityPool(EntityManager entityManager, String prefab, int capacity, Consumer<EntityRef> reset) {
+        this.entityManager = entityManager;
+        this.prefab = prefab;
+        this.capacity = capacity;
+        this.reset = reset;
+    }
+
+    /**
+     * @return an idle entity of the pool's prefab, or a new one if none is left. The caller has to re-enable it.
+     */
+    public EntityRef acquire() {
+        while (!idle.isEmpty()) {
+            EntityRef entity = idle.pop();
+            if (entity.exists()) {
+                REUSED.increment();
+                return entity;
+            }
+        }
+        CREATED.increment();
+        EntityBuilder builder = entityManager.newBuilder(prefab);
+        builder.setPersistent(false);
+        return builder.build();
+    }
+
+    /**
+     * Returns an entity to the pool, or destroys it if the pool is full.
+     */
+    public void release(EntityRef entity) {
+        if (!entity.exists()) {
+            return;
+        }
+        if (idle.size() < capacity) {
+            reset.accept(entity);
+            idle.push(entity);
+        } else {
+            entity.destroy();
+        }
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Destroys all idle entities.
+     */
+    public void clear() {
+        while (!idle.isEmpty()) {
+            idle.pop().destroy();
+        }
+    }
+}
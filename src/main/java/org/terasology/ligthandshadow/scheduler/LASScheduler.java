@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.scheduler;
+
+import com.google.common.collect.Maps;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Schedules timed LaS actions, such as flag returns, spawner cooldowns and dome animation ticks, on a
+ * {@link TimingWheel} driven by game time. When an action is due the entity receives a {@link ScheduledActionEvent}.
+ * <p>
+ * Each update only touches the wheel slots that are due, so the cost depends on the number of expiring actions
+ * rather than on the number of entities with a pending action. An entity has at most one pending action per id.
+ * Actions are not persisted; systems reschedule them when their entities are loaded.
+ */
+@RegisterSystem
+@Share(LASScheduler.class)
+public class LASScheduler extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final LatencyHistogram UPDATE_LATENCY = LASMetrics.handler("LASScheduler.update");
+
+    private static final long TICK_MILLIS = 10;
+
+    @In
+    private Time time;
+
+    private TimingWheel<Action> wheel;
+    private final Map<Action, TimingWheel.Timer<Action>> timers = Maps.newHashMap();
+
+    @Override
+    public void initialise() {
+        wheel = new TimingWheel<>(TICK_MILLIS, time.getGameTimeInMs());
+    }
+
+    @Override
+    public void update(float delta) {
+        LASMetrics.time(UPDATE_LATENCY, () -> {
+            wheel.advance(time.getGameTimeInMs(), this::trigger);
+        });
+    }
+
+    /**
+     * Schedules an action for an entity, replacing a pending action with the same id.
+     *
+     * @param delayMillis the game time until the action is due
+     */
+    public void schedule(EntityRef entity, String actionId, long delayMillis) {
+        Action action = new Action(entity, actionId);
+        TimingWheel.Timer<Action> timer = wheel.schedule(action, time.getGameTimeInMs() + delayMillis);
+        TimingWheel.Timer<Action> previous = timers.put(action, timer);
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    public boolean isScheduled(EntityRef entity, String actionId) {
+        return timers.containsKey(new Action(entity, actionId));
+    }
+
+    /**
+     * @return false if no such action was pending
+     */
+    public boolean cancel(EntityRef entity, String actionId) {
+        TimingWheel.Timer<Action> timer = timers.remove(new Action(entity, actionId));
+        return timer != null && wheel.cancel(timer);
+    }
+
+    /**
+     * @return the number of pending actions
+     */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    private void trigger(Action action) {
+        timers.remove(action);
+        if (action.entity.exists()) {
+            action.entity.send(new ScheduledActionEvent(action.actionId));
+        }
+    }
+
+    private static final class Action {
+        private final EntityRef entity;
+        private final String actionId;
+
+        private Action(EntityRef entity, String actionId) {
+            this.entity = entity;
+            this.actionId = actionId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Action)) {
+                return false;
+            }
+            Action other = (Action) o;
+            return entity.equals(other.entity) && actionId.equals(other.actionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entity, actionId);
+        }
+    }
+}
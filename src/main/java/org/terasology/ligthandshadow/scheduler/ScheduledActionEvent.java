@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 MovingBlocks
+ * Copyright 2019 MovingBlocks
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,20 +13,22 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.terasology.ligthandshadow.componentsystem.events;
 
-import org.terasology.entitySystem.entity.EntityRef;
+package org.terasology.ligthandshadow.scheduler;
+
 import org.terasology.entitySystem.event.Event;
-import org.terasology.network.BroadcastEvent;
 
-@BroadcastEvent
-public class FlagDropEvent implements Event {
-    public EntityRef player;
+/**
+ * Sent to an entity when an action scheduled for it with the {@link LASScheduler} is due.
+ */
+public class ScheduledActionEvent implements Event {
+    private final String actionId;
 
-    public FlagDropEvent() {
+    public ScheduledActionEvent(String actionId) {
+        this.actionId = actionId;
     }
 
-    public FlagDropEvent(EntityRef player) {
-        this.player = player;
+    public String getActionId() {
+        return actionId;
     }
 }
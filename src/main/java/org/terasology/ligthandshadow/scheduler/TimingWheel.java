@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel.
+ * <p>
+ * Time is divided into ticks. Each level has 64 slots, and a slot of level n spans 64^n ticks. A timer is kept in the
+ * level of the highest tick digit in which its deadline differs from the current tick, and moves down a level each
+ * time the wheel reaches that digit, until it expires from level 0. Scheduling and cancelling are constant time,
+ * and advancing the wheel only touches the slots that are due and the timers in them.
+ * <p>
+ * Delays are limited to the span of the top level, but a deadline may still lie beyond the top level's current
+ * rotation. Such timers wait in an overflow list that is redistributed when the top level wraps around.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <T> the type of the payload of a timer
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    /** The index of the overflow list in {@link #slots}, which only uses slot 0. */
+    private static final int OVERFLOW = LEVELS;
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis the length of a tick
+     * @param nowMillis the current time
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new Timer[LEVELS + 1][SLOTS];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a timer. Deadlines that are not in the future expire on the next tick.
+     *
+     * @return the handle to cancel the timer with
+     */
+    public Timer<T> schedule(T payload, long deadlineMillis) {
+        long deadline = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+        Timer<T> timer = new Timer<>(payload, Math.min(deadline, currentTick + MAX_DELAY_TICKS));
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * @return false if the timer already expired or was cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isScheduled()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time, passing the payload of every timer that expires on the way to the
+     * consumer in deadline order.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            int slot = (int) (currentTick & SLOT_MASK);
+            if (slot == 0) {
+                cascade(1);
+            }
+            // Re-read the head, the consumer may cancel other timers of this slot
+            Timer<T> timer;
+            while ((timer = slots[0][slot]) != null) {
+                unlink(timer);
+                size--;
+                expired.accept(timer.payload);
+            }
+        }
+    }
+
+    /**
+     * @return the number of scheduled timers
+     */
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        if (level > OVERFLOW) {
+            return;
+        }
+        int slot = level == OVERFLOW ? 0 : (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        if (slot == 0) {
+            cascade(level + 1);
+        }
+        Timer<T> timer = slots[level][slot];
+        slots[level][slot] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        long differentBits = timer.deadline ^ currentTick;
+        int level = differentBits == 0 ? 0 : (63 - Long.numberOfLeadingZeros(differentBits)) / SLOT_BITS;
+        int slot;
+        if (level >= OVERFLOW) {
+            // The deadline is in the next rotation of the top level
+            level = OVERFLOW;
+            slot = 0;
+        } else {
+            slot = (int) ((timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+        timer.level = level;
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = slots[level][slot];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    /**
+     * A scheduled timer.
+     */
+    public static final class Timer<T> {
+        private final T payload;
+        private final long deadline;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int level = -1;
+        private int slot;
+
+        private Timer(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+}
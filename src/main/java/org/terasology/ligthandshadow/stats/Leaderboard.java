@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.stats;
+
+import java.util.Arrays;
+
+/**
+ * The players with the highest values of one statistic, kept sorted as values change.
+ * <p>
+ * Statistics only grow between resets, so a player can only move up: an update costs at most one pass over the
+ * {@code k} entries and a query never looks at players outside the board. A board created with {@link #unbounded()}
+ * ranks every player added to it, and an update only passes the players it overtakes.
+ */
+class Leaderboard {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int limit;
+    private int[] players;
+    private int size;
+
+    Leaderboard(int k) {
+        this.limit = k;
+        this.players = new int[Math.min(k, INITIAL_CAPACITY)];
+    }
+
+    /**
+     * @return a board that keeps every player in it
+     */
+    static Leaderboard unbounded() {
+        return new Leaderboard(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Updates the board after the value of a player increased.
+     *
+     * @param values the current values of all players, indexed by player
+     */
+    void increased(int player, int[] values) {
+        int position = indexOf(player);
+        if (position < 0) {
+            if (size < limit) {
+                if (size == players.length) {
+                    players = Arrays.copyOf(players, Math.min(limit, players.length * 2));
+                }
+                position = size++;
+            } else if (values[player] > values[players[size - 1]]) {
+                position = size - 1;
+            } else {
+                return;
+            }
+            players[position] = player;
+        }
+        while (position > 0 && values[players[position - 1]] < values[player]) {
+            players[position] = players[position - 1];
+            position--;
+        }
+        players[position] = player;
+    }
+
+    /**
+     * Refills the board from scratch, for when a player on it went away and the next best may be anyone.
+     *
+     * @param active which player indexes are in use
+     */
+    void rebuild(int[] values, boolean[] active, int count) {
+        size = 0;
+        for (int player = 0; player < count; player++) {
+            if (active[player]) {
+                increased(player, values);
+            }
+        }
+    }
+
+    /**
+     * Takes a player off the board. A bounded board is not refilled, see {@link #rebuild}.
+     */
+    void remove(int player) {
+        int position = indexOf(player);
+        if (position >= 0) {
+            System.arraycopy(players, position + 1, players, position, size - position - 1);
+            size--;
+        }
+    }
+
+    boolean contains(int player) {
+        return indexOf(player) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the player at a rank, 0 being the highest value
+     */
+    int get(int rank) {
+        return players[rank];
+    }
+
+    private int indexOf(int player) {
+        for (int i = 0; i < size; i++) {
+            if (players[i] == player) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.ligthandshadow.stats;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnAddedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.ligthandshadow.componentsystem.components.LASArenaComponent;
+import org.terasology.ligthandshadow.componentsystem.components.PlayerStatisticsComponent;
+import org.terasology.ligthandshadow.componentsystem.controllers.MatchManager;
+import org.terasology.ligthandshadow.metrics.LASMetrics;
+import org.terasology.ligthandshadow.metrics.LatencyHistogram;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.players.PlayerUtil;
+import org.terasology.network.ClientComponent;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the statistics of all players in primitive arrays and maintains a top-{@value #LEADERBOARD_SIZE} leaderboard
+ * per statistic as they change. Each arena also has a full ranking of its players per statistic, kept up to date as
+ * values change and players join, change arenas or leave, so a match can be ranked without sorting its roster.
+ * <p>
+ * Changed players are written to their {@link PlayerStatisticsComponent} at most {@value #MAX_FLUSHES_PER_INTERVAL}
+ * at a time every {@value #FLUSH_INTERVAL} seconds, so a fight costs one component save and replication per player
+ * and interval instead of one per kill. A player's component is also written when the player is unloaded.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(PlayerStatisticsSystem.class)
+public class PlayerStatisticsSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final LatencyHistogram UPDATE_LATENCY = LASMetrics.handler("PlayerStatisticsSystem.update");
+    private static final LatencyHistogram ON_PLAYER_ACTIVATED_LATENCY =
+            LASMetrics.handler("PlayerStatisticsSystem.onPlayerActivated");
+    private static final LatencyHistogram ON_PLAYER_DEACTIVATED_LATENCY =
+            LASMetrics.handler("PlayerStatisticsSystem.onPlayerDeactivated");
+    private static final LatencyHistogram ON_ARENA_ADDED_LATENCY =
+            LASMetrics.handler("PlayerStatisticsSystem.onArenaAdded");
+    private static final LatencyHistogram ON_ARENA_CHANGED_LATENCY =
+            LASMetrics.handler("PlayerStatisticsSystem.onArenaChanged");
+
+    public static final int KILLS = 0;
+    public static final int DEATHS = 1;
+    public static final int CAPTURES = 2;
+    public static final int RETURNS = 3;
+    /** Milliseconds spent carrying the flag of the other team. */
+    public static final int CARRY_TIME = 4;
+    public static final int STAT_COUNT = 5;
+
+    private static final String[] STAT_NAMES = {"kills", "deaths", "captures", "returns", "carryTime"};
+
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final float FLUSH_INTERVAL = 1f;
+    private static final int MAX_FLUSHES_PER_INTERVAL = 16;
+    private static final int INITIAL_CAPACITY = 16;
+
+    @In
+    private Time time;
+
+    private final Map<EntityRef, Integer> indexes = Maps.newHashMap();
+    private EntityRef[] players = new EntityRef[INITIAL_CAPACITY];
+    private boolean[] active = new boolean[INITIAL_CAPACITY];
+    private final int[][] values = new int[STAT_COUNT][INITIAL_CAPACITY];
+    private long[] carryStart = new long[INITIAL_CAPACITY];
+    private int[] arenas = new int[INITIAL_CAPACITY];
+    private int count;
+    private int[] freeIndexes = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    private boolean[] dirty = new boolean[INITIAL_CAPACITY];
+    private int[] dirtyQueue = new int[INITIAL_CAPACITY];
+    private int dirtyHead;
+    private int dirtyCount;
+
+    private final Leaderboard[] leaderboards = new Leaderboard[STAT_COUNT];
+    private final Map<Integer, Leaderboard[]> arenaRankings = Maps.newHashMap();
+    private float sinceFlush;
+
+    @Override
+    public void initialise() {
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            leaderboards[stat] = new Leaderboard(LEADERBOARD_SIZE);
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        LASMetrics.time(UPDATE_LATENCY, () -> {
+            sinceFlush += delta;
+            if (sinceFlush >= FLUSH_INTERVAL) {
+                sinceFlush = 0;
+                flush(MAX_FLUSHES_PER_INTERVAL);
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        flush(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gives every loaded player an index, so that the rankings of their arena include them before they score.
+     */
+    @ReceiveEvent(components = PlayerStatisticsComponent.class)
+    public void onPlayerActivated(OnActivatedComponent event, EntityRef player) {
+        LASMetrics.time(ON_PLAYER_ACTIVATED_LATENCY, () -> {
+            indexOf(player);
+        });
+    }
+
+    @ReceiveEvent(components = PlayerStatisticsComponent.class)
+    public void onArenaAdded(OnAddedComponent event, EntityRef player, LASArenaComponent arena) {
+        LASMetrics.time(ON_ARENA_ADDED_LATENCY, () -> {
+            moveToArena(player, arena.arena);
+        });
+    }
+
+    @ReceiveEvent(components = PlayerStatisticsComponent.class)
+    public void onArenaChanged(OnChangedComponent event, EntityRef player, LASArenaComponent arena) {
+        LASMetrics.time(ON_ARENA_CHANGED_LATENCY, () -> {
+            moveToArena(player, arena.arena);
+        });
+    }
+
+    /**
+     * Writes the statistics of a player that is being unloaded and frees its index.
+     */
+    @ReceiveEvent
+    public void onPlayerDeactivated(BeforeDeactivateComponent event, EntityRef player,
+                                    PlayerStatisticsComponent statistics) {
+        LASMetrics.time(ON_PLAYER_DEACTIVATED_LATENCY, () -> {
+            Integer index = indexes.remove(player);
+            if (index == null) {
+                return;
+            }
+            flagDropped(index);
+            write(index, statistics);
+            // A pending entry in the dirty queue is skipped, or reused by the next player given this index
+            active[index] = false;
+            players[index] = EntityRef.NULL;
+            freeIndexes[freeCount++] = index;
+            Leaderboard[] rankings = getArenaRankings(arenas[index]);
+            for (int stat = 0; stat < STAT_COUNT; stat++) {
+                rankings[stat].remove(index);
+                if (leaderboards[stat].contains(index)) {
+                    leaderboards[stat].rebuild(values[stat], active, count);
+                }
+            }
+        });
+    }
+
+    /**
+     * Counts a kill for the instigator of a death, if it is a player.
+     */
+    public void recordKill(EntityRef instigator) {
+        increment(instigator, KILLS, 1);
+    }
+
+    public void recordDeath(EntityRef player) {
+        increment(player, DEATHS, 1);
+    }
+
+    public void recordCapture(EntityRef player) {
+        increment(player, CAPTURES, 1);
+    }
+
+    /**
+     * Counts a player bringing their own team's flag back to its base.
+     */
+    public void recordReturn(EntityRef player) {
+        increment(player, RETURNS, 1);
+    }
+
+    /**
+     * Starts counting flag carry time for a player.
+     */
+    public void flagPickedUp(EntityRef player) {
+        int index = indexOf(player);
+        if (index >= 0) {
+            carryStart[index] = time.getGameTimeInMs();
+        }
+    }
+
+    /**
+     * Adds the time since the player picked up the flag to their carry time.
+     */
+    public void flagDropped(EntityRef player) {
+        int index = indexOf(player);
+        if (index >= 0) {
+            flagDropped(index);
+        }
+    }
+
+    /**
+     * @param stat one of the statistic constants of this class
+     */
+    public int getValue(EntityRef player, int stat) {
+        Integer index = indexes.get(player);
+        return index != null ? values[stat][index] : 0;
+    }
+
+    /**
+     * @param stat one of the statistic constants of this class
+     * @return up to {@value #LEADERBOARD_SIZE} players with the highest value of the statistic, highest first
+     */
+    public List<EntityRef> getTopPlayers(int stat) {
+        Leaderboard leaderboard = leaderboards[stat];
+        List<EntityRef> result = Lists.newArrayListWithCapacity(leaderboard.size());
+        for (int rank = 0; rank < leaderboard.size(); rank++) {
+            result.add(players[leaderboard.get(rank)]);
+        }
+        return result;
+    }
+
+    /**
+     * @param arena the arena of a match, see {@link LASArenaComponent}
+     * @param stat one of the statistic constants of this class
+     * @return all loaded players of the arena, highest value of the statistic first
+     */
+    public List<EntityRef> getRanking(int arena, int stat) {
+        Leaderboard ranking = getArenaRankings(arena)[stat];
+        List<EntityRef> result = Lists.newArrayListWithCapacity(ranking.size());
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            result.add(players[ranking.get(rank)]);
+        }
+        return result;
+    }
+
+    @Command(shortDescription = "Show the LaS leaderboard",
+            helpText = "Lists the best players by kills, or by deaths, captures, returns or carryTime",
+            runOnServer = true)
+    public String leaderboard(@CommandParam(value = "statistic", required = false) String statName) {
+        int stat = statName != null ? Arrays.asList(STAT_NAMES).indexOf(statName) : KILLS;
+        if (stat < 0) {
+            return "Unknown statistic '" + statName + "', expected one of " + String.join(", ", STAT_NAMES) + ".";
+        }
+        StringBuilder builder = new StringBuilder("Top players by ").append(STAT_NAMES[stat]).append(':');
+        int rank = 1;
+        for (EntityRef player : getTopPlayers(stat)) {
+            builder.append('\n').append(rank++).append(". ").append(getPlayerName(player)).append(": ")
+                    .append(getValue(player, stat));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the coloured name of the client controlling a character
+     */
+    public static String getPlayerName(EntityRef player) {
+        ClientComponent client = player.getOwner().getComponent(ClientComponent.class);
+        return client != null ? PlayerUtil.getColoredPlayerName(client.clientInfo) : "?";
+    }
+
+    private void increment(EntityRef player, int stat, int amount) {
+        int index = indexOf(player);
+        if (index < 0) {
+            return;
+        }
+        values[stat][index] += amount;
+        leaderboards[stat].increased(index, values[stat]);
+        getArenaRankings(arenas[index])[stat].increased(index, values[stat]);
+        markDirty(index);
+    }
+
+    private void flagDropped(int index) {
+        if (carryStart[index] >= 0) {
+            int carried = (int) (time.getGameTimeInMs() - carryStart[index]);
+            carryStart[index] = -1;
+            values[CARRY_TIME][index] += carried;
+            leaderboards[CARRY_TIME].increased(index, values[CARRY_TIME]);
+            getArenaRankings(arenas[index])[CARRY_TIME].increased(index, values[CARRY_TIME]);
+            markDirty(index);
+        }
+    }
+
+    /**
+     * @return the index of a player, assigned and loaded from its component on first use, or -1 if the entity has no
+     * statistics
+     */
+    private int indexOf(EntityRef player) {
+        Integer existing = indexes.get(player);
+        if (existing != null) {
+            return existing;
+        }
+        PlayerStatisticsComponent statistics = player.getComponent(PlayerStatisticsComponent.class);
+        if (statistics == null) {
+            return -1;
+        }
+        int index = freeCount > 0 ? freeIndexes[--freeCount] : count++;
+        ensureCapacity(count);
+        indexes.put(player, index);
+        players[index] = player;
+        active[index] = true;
+        carryStart[index] = -1;
+        values[KILLS][index] = statistics.kills;
+        values[DEATHS][index] = statistics.deaths;
+        values[CAPTURES][index] = statistics.captures;
+        values[RETURNS][index] = statistics.returns;
+        values[CARRY_TIME][index] = statistics.carryTime;
+        LASArenaComponent arena = player.getComponent(LASArenaComponent.class);
+        arenas[index] = arena != null ? arena.arena : MatchManager.DEFAULT_ARENA;
+        Leaderboard[] rankings = getArenaRankings(arenas[index]);
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            leaderboards[stat].increased(index, values[stat]);
+            rankings[stat].increased(index, values[stat]);
+        }
+        return index;
+    }
+
+    private void moveToArena(EntityRef player, int arena) {
+        Integer index = indexes.get(player);
+        if (index == null || arenas[index] == arena) {
+            return;
+        }
+        Leaderboard[] from = getArenaRankings(arenas[index]);
+        Leaderboard[] to = getArenaRankings(arena);
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            from[stat].remove(index);
+            to[stat].increased(index, values[stat]);
+        }
+        arenas[index] = arena;
+    }
+
+    private Leaderboard[] getArenaRankings(int arena) {
+        return arenaRankings.computeIfAbsent(arena, key -> {
+            Leaderboard[] rankings = new Leaderboard[STAT_COUNT];
+            for (int stat = 0; stat < STAT_COUNT; stat++) {
+                rankings[stat] = Leaderboard.unbounded();
+            }
+            return rankings;
+        });
+    }
+
+    private void markDirty(int index) {
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyQueue[(dirtyHead + dirtyCount) % dirtyQueue.length] = index;
+            dirtyCount++;
+        }
+    }
+
+    private void flush(int limit) {
+        int flushed = 0;
+        while (dirtyCount > 0 && flushed < limit) {
+            int index = dirtyQueue[dirtyHead];
+            dirtyHead = (dirtyHead + 1) % dirtyQueue.length;
+            dirtyCount--;
+            dirty[index] = false;
+            if (!active[index]) {
+                continue;
+            }
+            PlayerStatisticsComponent statistics = players[index].getComponent(PlayerStatisticsComponent.class);
+            if (statistics != null) {
+                write(index, statistics);
+                flushed++;
+            }
+        }
+    }
+
+    private void write(int index, PlayerStatisticsComponent statistics) {
+        statistics.kills = values[KILLS][index];
+        statistics.deaths = values[DEATHS][index];
+        statistics.captures = values[CAPTURES][index];
+        statistics.returns = values[RETURNS][index];
+        statistics.carryTime = values[CARRY_TIME][index];
+        players[index].saveComponent(statistics);
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = players.length;
+        if (required <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(capacity * 2, required);
+        players = Arrays.copyOf(players, newCapacity);
+        active = Arrays.copyOf(active, newCapacity);
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            values[stat] = Arrays.copyOf(values[stat], newCapacity);
+        }
+        carryStart = Arrays.copyOf(carryStart, newCapacity);
+        arenas = Arrays.copyOf(arenas, newCapacity);
+        freeIndexes = Arrays.copyOf(freeIndexes, newCapacity);
+        dirty = Arrays.copyOf(dirty, newCapacity);
+        int[] queue = new int[newCapacity];
+        for (int i = 0; i < dirtyCount; i++) {
+            queue[i] = dirtyQueue[(dirtyHead + i) % dirtyQueue.length];
+        }
+        dirtyQueue = queue;
+        dirtyHead = 0;
+    }
+}
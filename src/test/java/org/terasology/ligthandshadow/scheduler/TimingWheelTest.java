@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.ligthandshadow.scheduler;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+    /** The span of the top level of the wheel, in ticks. */
+    private static final long TOP_LEVEL_SPAN = 1L << 30;
+
+    private final List<String> expired = Lists.newArrayList();
+    private final List<Long> expiredAt = Lists.newArrayList();
+
+    @Test
+    public void expiresEachTimerOnItsDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+        long[] deadlines = {10, 630, 640, 650, 40950, 40960, 2621440, 2621450};
+        for (long deadline : deadlines) {
+            wheel.schedule(String.valueOf(deadline), deadline);
+        }
+
+        advanceTickByTick(wheel, 0, 2621450, 10);
+
+        assertEquals(deadlines.length, expired.size());
+        for (int i = 0; i < deadlines.length; i++) {
+            assertEquals(String.valueOf(deadlines[i]), expired.get(i));
+            assertEquals(deadlines[i], (long) expiredAt.get(i));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cascadesTimersScheduledAfterTheWheelMoved() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        wheel.advance(4000, this::record);
+        wheel.schedule("a", 4100);
+        wheel.schedule("b", 4096);
+        wheel.schedule("c", 8192);
+
+        advanceTickByTick(wheel, 4000, 8192, 1);
+
+        assertEquals(Lists.newArrayList("b", "a", "c"), expired);
+        assertEquals(Lists.newArrayList(4096L, 4100L, 8192L), expiredAt);
+    }
+
+    @Test
+    public void deadlinesInThePastExpireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 1000);
+        wheel.schedule("late", 500);
+
+        wheel.advance(1000, this::record);
+        assertTrue(expired.isEmpty());
+        wheel.advance(1010, this::record);
+        assertEquals(Lists.newArrayList("late"), expired);
+    }
+
+    @Test
+    public void cancelledTimersDoNotExpire() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timer<String> near = wheel.schedule("near", 5);
+        TimingWheel.Timer<String> far = wheel.schedule("far", 100000);
+        wheel.schedule("kept", 6);
+
+        assertTrue(wheel.cancel(near));
+        assertFalse(wheel.cancel(near));
+        assertFalse(near.isScheduled());
+        assertTrue(wheel.cancel(far));
+        assertEquals(1, wheel.size());
+
+        wheel.advance(200000, this::record);
+        assertEquals(Lists.newArrayList("kept"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void timersCanBeCancelledWhileTheirSlotExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        List<TimingWheel.Timer<String>> timers = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            timers.add(wheel.schedule("t" + i, 10));
+        }
+
+        wheel.advance(10, payload -> {
+            expired.add(payload);
+            for (TimingWheel.Timer<String> timer : timers) {
+                wheel.cancel(timer);
+            }
+        });
+
+        assertEquals(1, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void expiredTimersCannotBeCancelled() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timer<String> timer = wheel.schedule("a", 1);
+        wheel.advance(1, this::record);
+
+        assertFalse(timer.isScheduled());
+        assertFalse(wheel.cancel(timer));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void deadlinesAcrossTheTopLevelBoundaryExpireOnTime() {
+        long start = TOP_LEVEL_SPAN - 100;
+        TimingWheel<String> wheel = new TimingWheel<>(1, start);
+        wheel.schedule("before", TOP_LEVEL_SPAN - 1);
+        wheel.schedule("on", TOP_LEVEL_SPAN);
+        wheel.schedule("after", TOP_LEVEL_SPAN + 4096);
+
+        advanceTickByTick(wheel, start, TOP_LEVEL_SPAN + 4096, 1);
+
+        assertEquals(Lists.newArrayList("before", "on", "after"), expired);
+        assertEquals(Lists.newArrayList(TOP_LEVEL_SPAN - 1, TOP_LEVEL_SPAN, TOP_LEVEL_SPAN + 4096), expiredAt);
+    }
+
+    @Test
+    public void longDelaysAcrossTheTopLevelBoundaryExpireOnTime() {
+        long start = 3 * TOP_LEVEL_SPAN - (1 << 24);
+        long deadline = start + (1 << 25);
+        TimingWheel<String> wheel = new TimingWheel<>(1, start);
+        wheel.schedule("long", deadline);
+
+        wheel.advance(deadline - 1, this::record);
+        assertTrue(expired.isEmpty());
+        assertEquals(1, wheel.size());
+        wheel.advance(deadline, this::record);
+        assertEquals(Lists.newArrayList("long"), expired);
+    }
+
+    @Test
+    public void cancelsTimersWaitingForTheNextTopLevelRotation() {
+        long start = TOP_LEVEL_SPAN - 10;
+        TimingWheel<String> wheel = new TimingWheel<>(1, start);
+        TimingWheel.Timer<String> timer = wheel.schedule("a", TOP_LEVEL_SPAN + 10);
+
+        assertTrue(wheel.cancel(timer));
+        wheel.advance(TOP_LEVEL_SPAN + 20, this::record);
+        assertTrue(expired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    private void advanceTickByTick(TimingWheel<String> wheel, long from, long to, long tickMillis) {
+        for (long now = from + tickMillis; now <= to; now += tickMillis) {
+            long time = now;
+            wheel.advance(now, payload -> {
+                expired.add(payload);
+                expiredAt.add(time);
+            });
+        }
+    }
+
+    private void record(String payload) {
+        expired.add(payload);
+    }
+}